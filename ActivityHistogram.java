@@ -0,0 +1,139 @@
+package models;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Activity Histogram
+ * Immutable counts of a criminal's linked crimes by hour of day and day of
+ * week. Built from the times of crime of the linked scenes; crimes with no
+ * recorded time are not counted.
+ */
+public final class ActivityHistogram {
+
+    public static final int HOURS = 24;
+    public static final int DAYS = 7;
+
+    public static final ActivityHistogram EMPTY = new ActivityHistogram(new int[HOURS], new int[DAYS], 0);
+
+    private final int[] byHour;
+    private final int[] byDay;
+    private final int total;
+
+    private ActivityHistogram(int[] byHour, int[] byDay, int total) {
+        this.byHour = byHour;
+        this.byDay = byDay;
+        this.total = total;
+    }
+
+    /**
+     * Build a histogram from times of crime (null times are skipped)
+     */
+    public static ActivityHistogram of(Collection<LocalDateTime> times) {
+        int[] byHour = new int[HOURS];
+        int[] byDay = new int[DAYS];
+        int total = 0;
+        for (LocalDateTime time : times) {
+            if (time != null) {
+                byHour[hourOf(time)]++;
+                byDay[dayOf(time)]++;
+                total++;
+            }
+        }
+        return total == 0 ? EMPTY : new ActivityHistogram(byHour, byDay, total);
+    }
+
+    /**
+     * Number of crimes counted
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return total == 0;
+    }
+
+    /**
+     * Crimes committed in an hour of day (0-23)
+     */
+    public int getHourCount(int hour) {
+        return byHour[hour];
+    }
+
+    /**
+     * Crimes committed within a number of hours either side of an hour,
+     * wrapping around midnight
+     */
+    public int getHourCount(int hour, int window) {
+        if (window >= HOURS / 2) {
+            return total;
+        }
+        int count = 0;
+        for (int offset = -window; offset <= window; offset++) {
+            count += byHour[Math.floorMod(hour + offset, HOURS)];
+        }
+        return count;
+    }
+
+    /**
+     * Crimes committed on a day of week (0 = Monday)
+     */
+    public int getDayCount(int day) {
+        return byDay[day];
+    }
+
+    /**
+     * Hours of day with at least one crime
+     */
+    public List<Integer> getActiveHours() {
+        return activeSlots(byHour);
+    }
+
+    /**
+     * Days of week (0 = Monday) with at least one crime
+     */
+    public List<Integer> getActiveDays() {
+        return activeSlots(byDay);
+    }
+
+    private static List<Integer> activeSlots(int[] counts) {
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                slots.add(i);
+            }
+        }
+        return slots;
+    }
+
+    // ==================== TIME SLOTS ====================
+
+    /**
+     * Hour-of-day slot of a time
+     */
+    public static int hourOf(LocalDateTime time) {
+        return time.getHour();
+    }
+
+    /**
+     * Day-of-week slot of a time (0 = Monday)
+     */
+    public static int dayOf(LocalDateTime time) {
+        return time.getDayOfWeek().getValue() - 1;
+    }
+
+    /**
+     * Hours between two hours of day, the short way around the clock
+     */
+    public static int hoursApart(int a, int b) {
+        int diff = Math.abs(a - b);
+        return Math.min(diff, HOURS - diff);
+    }
+
+    @Override
+    public String toString() {
+        return "ActivityHistogram{total=" + total + ", byHour=" + Arrays.toString(byHour)
+                + ", byDay=" + Arrays.toString(byDay) + "}";
+    }
+}
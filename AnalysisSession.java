@@ -0,0 +1,290 @@
+package engine;
+
+import models.*;
+import models.criminals.Criminal;
+import java.util.*;
+
+/**
+ * Analysis Session
+ * Keeps the suspect ranking for one crime scene up to date as the scene
+ * changes. Each change only rescores the criminals its rule can affect:
+ * weapon evidence touches armed types, digital touches cyber criminals,
+ * the organization characteristic touches MO matches, scene coordinates
+ * touch criminals with located known locations, the time of crime touches
+ * criminals with linked crimes, and so on.
+ * Surveillance and witness evidence add the same score to everyone, so
+ * they never reorder the ranking. Weight changes in the learning model
+ * are picked up on the next query.
+ *
+ * The session listens to the scene until close() is called. Evidence
+ * attributes should be set before the evidence is added to the scene.
+ */
+public class AnalysisSession implements CrimeSceneListener {
+
+    // Features that apply to every criminal equally
+    private static final int SCENE_WIDE_MASK =
+            (1 << Feature.SURVEILLANCE_FOOTAGE.ordinal()) | (1 << Feature.WITNESS_TESTIMONY.ordinal());
+
+    private final ProbabilityEngine engine;
+    private final CrimeScene scene;
+    private final double[] scratch;
+
+    // Weights in use and the model version they came from
+    private double[] weights;
+    private SimpleLearningModel weightSource;
+    private long weightVersion;
+
+    private SceneProfile profile;
+    private final Entry[] entries;
+    private final TreeSet<Entry> ranking;
+
+    // Criminals each incremental rule can affect
+    private final List<Entry> armed;
+    private final List<Entry> cyber;
+    private final List<Entry> financial;
+    private final List<Entry> moOrganized;
+    private final List<Entry> moDisorganized;
+    private final List<Entry> victimTargeting;
+    private final List<Entry> located;
+    private final List<Entry> active;
+
+    private boolean closed;
+
+    /**
+     * Scoring state of one criminal
+     */
+    private static class Entry {
+        private final int index;
+        private final CriminalFeatures features;
+        private int mask;
+        private double specificScore;
+
+        Entry(int index, CriminalFeatures features) {
+            this.index = index;
+            this.features = features;
+        }
+    }
+
+    /**
+     * Constructor - scores every criminal once and starts listening
+     */
+    AnalysisSession(ProbabilityEngine engine, CrimeScene scene, List<Criminal> criminals) {
+        this.engine = engine;
+        this.scene = scene;
+        this.weightSource = engine.getLearningModel();
+        this.weightVersion = weightSource.getVersion();
+        this.weights = engine.currentWeights();
+        this.scratch = new double[Feature.count()];
+        this.profile = new SceneProfile(scene);
+
+        this.ranking = new TreeSet<>((a, b) -> {
+            int cmp = Double.compare(b.specificScore, a.specificScore);
+            return cmp != 0 ? cmp : Integer.compare(a.index, b.index);
+        });
+        this.armed = new ArrayList<>();
+        this.cyber = new ArrayList<>();
+        this.financial = new ArrayList<>();
+        this.moOrganized = new ArrayList<>();
+        this.moDisorganized = new ArrayList<>();
+        this.victimTargeting = new ArrayList<>();
+        this.located = new ArrayList<>();
+        this.active = new ArrayList<>();
+
+        this.entries = new Entry[criminals.size()];
+        int i = 0;
+        for (Criminal criminal : criminals) {
+            CriminalFeatures features = new CriminalFeatures(criminal);
+            Entry entry = new Entry(i, features);
+            entries[i++] = entry;
+
+            score(entry);
+            ranking.add(entry);
+
+            if (features.weaponPreference != null) armed.add(entry);
+            if (features.cyber) cyber.add(entry);
+            if (features.financial) financial.add(entry);
+            if (features.moOrganized) moOrganized.add(entry);
+            if (features.moDisorganized) moDisorganized.add(entry);
+            if (features.victimType != null) victimTargeting.add(entry);
+            if (!features.points.isEmpty()) located.add(entry);
+            if (!features.activity.isEmpty()) active.add(entry);
+        }
+
+        scene.addListener(this);
+    }
+
+    // ==================== RANKING ====================
+
+    /**
+     * Get the current top N suspects
+     */
+    public synchronized List<Suspect> getTopSuspects(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
+        }
+
+        refreshWeights();
+        double sceneWide = sceneWideScore();
+        List<Entry> top = new ArrayList<>();
+        Iterator<Entry> it = ranking.iterator();
+        Entry next = null;
+
+        // Totals capped at 100 tie, and ties rank in input order
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.specificScore + sceneWide < 100.0) {
+                next = entry;
+                break;
+            }
+            top.add(entry);
+        }
+        top.sort(Comparator.comparingInt(e -> e.index));
+        if (top.size() > count) {
+            top = new ArrayList<>(top.subList(0, count));
+        }
+
+        if (next != null && top.size() < count) {
+            top.add(next);
+        }
+        while (top.size() < count && it.hasNext()) {
+            top.add(it.next());
+        }
+
+        List<Suspect> suspects = new ArrayList<>(top.size());
+        for (Entry entry : top) {
+            suspects.add(toSuspect(entry));
+        }
+        return engine.explainAll(suspects, scene);
+    }
+
+    /**
+     * Get the scene this session tracks
+     */
+    public CrimeScene getScene() {
+        return scene;
+    }
+
+    /**
+     * Get number of criminals in the session
+     */
+    public int getCriminalCount() {
+        return entries.length;
+    }
+
+    /**
+     * Stop listening to the scene
+     */
+    public synchronized void close() {
+        if (!closed) {
+            scene.removeListener(this);
+            closed = true;
+        }
+    }
+
+    // ==================== SCENE CHANGES ====================
+
+    @Override
+    public synchronized void evidenceChanged(CrimeScene scene, Evidence evidence, boolean added) {
+        profile = new SceneProfile(scene);
+
+        switch (evidence.getType().toUpperCase()) {
+            case "WEAPON":
+                rescore(armed);
+                break;
+            case "DIGITAL":
+                rescore(cyber);
+                break;
+            case "FINANCIAL":
+                rescore(financial);
+                break;
+            default:
+                // Scene-wide or unscored evidence - ranking unchanged
+                break;
+        }
+    }
+
+    @Override
+    public synchronized void characteristicChanged(CrimeScene scene, String key) {
+        if (!"organization".equals(key)) {
+            return;
+        }
+
+        profile = new SceneProfile(scene);
+        rescore(moOrganized);
+        rescore(moDisorganized);
+    }
+
+    @Override
+    public synchronized void victimProfileChanged(CrimeScene scene) {
+        profile = new SceneProfile(scene);
+        rescore(victimTargeting);
+    }
+
+    @Override
+    public synchronized void coordinatesChanged(CrimeScene scene) {
+        profile = new SceneProfile(scene);
+        rescore(located);
+    }
+
+    @Override
+    public synchronized void timeOfCrimeChanged(CrimeScene scene) {
+        profile = new SceneProfile(scene);
+        rescore(active);
+    }
+
+    // ==================== SCORING ====================
+
+    /**
+     * Rescore a group and reposition it in the ranking
+     */
+    private void rescore(List<Entry> group) {
+        for (Entry entry : group) {
+            ranking.remove(entry);
+            score(entry);
+            ranking.add(entry);
+        }
+    }
+
+    private void score(Entry entry) {
+        entry.mask = engine.scoreFeatures(entry.features, profile, weights, scratch);
+        entry.specificScore = ProbabilityEngine.sum(entry.mask & ~SCENE_WIDE_MASK, scratch);
+    }
+
+    /**
+     * Score added to every criminal by surveillance and witness evidence
+     */
+    private double sceneWideScore() {
+        double score = 0.0;
+        if (profile.hasEvidence(SceneProfile.SURVEILLANCE)) {
+            score += weights[Feature.SURVEILLANCE_FOOTAGE.ordinal()] * ProbabilityEngine.SURVEILLANCE_MULTIPLIER;
+        }
+        if (profile.hasEvidence(SceneProfile.WITNESS)) {
+            score += weights[Feature.WITNESS_TESTIMONY.ordinal()] * ProbabilityEngine.WITNESS_MULTIPLIER;
+        }
+        return score;
+    }
+
+    private Suspect toSuspect(Entry entry) {
+        int mask = engine.scoreFeatures(entry.features, profile, weights, scratch);
+        return ProbabilityEngine.toSuspect(entry.features, profile, mask, weights);
+    }
+
+    /**
+     * Rescore everyone if the model weights changed since the last query
+     */
+    private void refreshWeights() {
+        SimpleLearningModel model = engine.getLearningModel();
+        if (model == weightSource && model.getVersion() == weightVersion) {
+            return;
+        }
+
+        weightSource = model;
+        weightVersion = model.getVersion();
+        weights = engine.currentWeights();
+        ranking.clear();
+        for (Entry entry : entries) {
+            score(entry);
+            ranking.add(entry);
+        }
+    }
+}
@@ -7,7 +7,6 @@ import javafx.scene.layout.*;
 import database.CriminalDatabase;
 import engine.ProbabilityEngine;
 import models.*;
-import models.criminals.Criminal;
 
 import java.util.List;
 
@@ -123,13 +122,12 @@ public class AnalysisView extends VBox {
         showStatus("Analyzing crime scene...", true);
 
         // Perform analysis
-        List<Criminal> criminals = database.getAllCriminals();
-        List<Suspect> suspects = engine.analyzeCrimeScene(selectedScene, criminals);
+        List<Suspect> suspects = engine.getTopSuspects(selectedScene, database, 10);
 
         // Display results
         displayResults(selectedScene, suspects);
 
-        showStatus("Analysis complete! Found " + suspects.size() + " potential suspects", true);
+        showStatus("Analysis complete! Ranked " + database.getCriminalCount() + " potential suspects", true);
     }
 
     private void displayResults(CrimeScene scene, List<Suspect> suspects) {
@@ -167,6 +165,7 @@ public class AnalysisView extends VBox {
     }
 
     private VBox createSuspectCard(Suspect suspect, int rank) {
+        suspect.explain();
         VBox card = new VBox(10);
         card.setPadding(new Insets(15));
 
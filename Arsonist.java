@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Arsonist Criminal Type
  */
 public class Arsonist extends Criminal {
 
+    private static final long serialVersionUID = 2967251941765536100L;
+
     private String accelerantType;
     private String targetType;
     private String motivation;
@@ -61,4 +68,23 @@ public class Arsonist extends Criminal {
     public void incrementFireCount() {
         this.fireCount++;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(accelerantType);
+        out.writeString(targetType);
+        out.writeString(motivation);
+        out.writeVarInt(fireCount);
+        out.writeBoolean(hasFirefightingKnowledge);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        accelerantType = in.readString();
+        targetType = in.readString();
+        motivation = in.readString();
+        fireCount = in.readVarInt();
+        hasFirefightingKnowledge = in.readBoolean();
+    }
 }
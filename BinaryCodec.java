@@ -0,0 +1,172 @@
+package database;
+
+import models.*;
+import models.criminals.Criminal;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Binary Codec
+ * Versioned binary format for a CriminalDatabase, replacing Java
+ * serialization for snapshots and journal records.
+ *
+ * File layout: magic "CPDB", format version, criminal count, criminals,
+ * scene count, scenes. Each criminal starts with its type code, so no
+ * class descriptors or field names are written, and one string table
+ * spans the whole file so repeated locations, types and MO text are
+ * stored once. Records are read and written by hand-written code in the
+ * model classes (writeTo / readFrom) - no reflection.
+ */
+public class BinaryCodec {
+
+    // Format version; only the current layout is read
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'C', 'P', 'D', 'B'};
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private BinaryCodec() {
+    }
+
+    // ==================== DATABASE ====================
+
+    /**
+     * Write the whole database (the stream is flushed, not closed)
+     */
+    public static void writeDatabase(CriminalDatabase database, OutputStream out) throws IOException {
+        BinaryWriter writer = new BinaryWriter(out);
+        for (byte b : MAGIC) {
+            writer.writeByte(b);
+        }
+        writer.writeVarInt(VERSION);
+
+        // Counts come from the same snapshots as the records
+        List<Criminal> criminals = database.getAllCriminals();
+        writer.writeVarInt(criminals.size());
+        for (Criminal criminal : criminals) {
+            criminal.writeTo(writer);
+        }
+
+        List<CrimeScene> scenes = database.getAllCrimeScenes();
+        writer.writeVarInt(scenes.size());
+        for (CrimeScene scene : scenes) {
+            scene.writeTo(writer);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Read a database written by writeDatabase into the given database
+     */
+    public static void readDatabase(InputStream in, CriminalDatabase database) throws IOException {
+        BinaryReader reader = new BinaryReader(in);
+        for (byte b : MAGIC) {
+            if (reader.readByte() != b) {
+                throw new IOException("Not a binary database file");
+            }
+        }
+
+        int version = reader.readVarInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary format version: " + version);
+        }
+
+        // Records follow the header with an empty string table
+        reader = new BinaryReader(in);
+
+        int criminalCount = reader.readVarInt();
+        List<Criminal> criminals = new ArrayList<>(criminalCount);
+        for (int i = 0; i < criminalCount; i++) {
+            criminals.add(Criminal.readFrom(reader));
+        }
+        database.addCriminals(criminals);
+
+        int sceneCount = reader.readVarInt();
+        for (int i = 0; i < sceneCount; i++) {
+            database.addCrimeScene(CrimeScene.readFrom(reader));
+        }
+    }
+
+    /**
+     * Check whether a stream starts with the binary format magic.
+     * The stream must support mark/reset; its position is left unchanged.
+     */
+    public static boolean isBinary(InputStream in) throws IOException {
+        in.mark(MAGIC.length);
+        try {
+            for (byte b : MAGIC) {
+                if (in.read() != b) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            in.reset();
+        }
+    }
+
+    // ==================== SINGLE RECORDS ====================
+
+    /**
+     * Encode one criminal on its own (own string table)
+     */
+    public static byte[] encode(Criminal criminal) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try {
+            criminal.writeTo(new BinaryWriter(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode criminal " + criminal.getId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encode one crime scene on its own (own string table)
+     */
+    public static byte[] encode(CrimeScene scene) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try {
+            scene.writeTo(new BinaryWriter(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode crime scene " + scene.getSceneId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static Criminal decodeCriminal(byte[] bytes) throws IOException {
+        return Criminal.readFrom(new BinaryReader(new ByteArrayInputStream(bytes)));
+    }
+
+    public static CrimeScene decodeCrimeScene(byte[] bytes) throws IOException {
+        return CrimeScene.readFrom(new BinaryReader(new ByteArrayInputStream(bytes)));
+    }
+
+    // ==================== CONVERSION ====================
+
+    /**
+     * Convert a Java-serialized .dat file to the binary format.
+     * Returns the number of criminals and scenes written.
+     */
+    public static int convertLegacy(File datFile, File binaryFile) throws IOException {
+        CriminalDatabase database = new CriminalDatabase();
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(datFile), BUFFER_BYTES))) {
+            CriminalDatabase loaded = (CriminalDatabase) ois.readObject();
+            database.addCriminals(loaded.getAllCriminals());
+            for (CrimeScene scene : loaded.getAllCrimeScenes()) {
+                database.addCrimeScene(scene);
+            }
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unreadable database file: " + e.getMessage(), e);
+        }
+
+        File temp = new File(binaryFile.getPath() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp), BUFFER_BYTES)) {
+            writeDatabase(database, out);
+        }
+        Files.move(temp.toPath(), binaryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        return database.getCriminalCount() + database.getSceneCount();
+    }
+}
@@ -0,0 +1,168 @@
+package models;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Binary Reader
+ * Reads values written by BinaryWriter, rebuilding its string table.
+ */
+public class BinaryReader implements Closeable {
+
+    private final InputStream in;
+    private final List<String> strings = new ArrayList<>();
+    private byte[] buffer = new byte[64];
+
+    /**
+     * Constructor
+     */
+    public BinaryReader(InputStream in) {
+        if (in == null) {
+            throw new IllegalArgumentException("Input stream cannot be null");
+        }
+        this.in = in;
+    }
+
+    // ==================== NUMBERS ====================
+
+    public int readVarInt() throws IOException {
+        long value = readVarLong();
+        if (value > 0xFFFFFFFFL) {
+            throw new IOException("Malformed varint");
+        }
+        return (int) value;
+    }
+
+    public long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    public int readSignedInt() throws IOException {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public double readDouble() throws IOException {
+        readFully(buffer, 8);
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (buffer[i] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readUnsignedByte() != 0;
+    }
+
+    public int readByte() throws IOException {
+        return readUnsignedByte();
+    }
+
+    public LocalDateTime readTime() throws IOException {
+        if (!readBoolean()) {
+            return null;
+        }
+        long zigzag = readVarLong();
+        long seconds = (zigzag >>> 1) ^ -(zigzag & 1);
+        return LocalDateTime.ofEpochSecond(seconds, readVarInt(), ZoneOffset.UTC);
+    }
+
+    public GeoPoint readGeoPoint() throws IOException {
+        if (!readBoolean()) {
+            return null;
+        }
+        try {
+            return new GeoPoint(readDouble(), readDouble());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed coordinates", e);
+        }
+    }
+
+    // ==================== STRINGS ====================
+
+    /**
+     * Read a string written by writeString or writeUniqueString
+     */
+    public String readString() throws IOException {
+        int tag = readVarInt();
+        switch (tag) {
+            case BinaryWriter.NULL_STRING:
+                return null;
+            case BinaryWriter.INLINE_STRING:
+                return readUtf8();
+            case BinaryWriter.NEW_STRING:
+                String value = readUtf8();
+                strings.add(value);
+                return value;
+            default:
+                int index = tag - BinaryWriter.FIRST_REFERENCE;
+                if (index >= strings.size()) {
+                    throw new IOException("Unknown string reference: " + index);
+                }
+                return strings.get(index);
+        }
+    }
+
+    public List<String> readStringList() throws IOException {
+        int size = readVarInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    public Map<String, String> readStringMap() throws IOException {
+        int size = readVarInt();
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            values.put(readString(), readString());
+        }
+        return values;
+    }
+
+    private String readUtf8() throws IOException {
+        int length = readVarInt();
+        if (length > buffer.length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+        readFully(buffer, length);
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int readUnsignedByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    private void readFully(byte[] bytes, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int n = in.read(bytes, read, length - read);
+            if (n < 0) {
+                throw new EOFException();
+            }
+            read += n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,174 @@
+package models;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Binary Writer
+ * Compact output for the hand-written record format: varints, raw doubles
+ * and a string table that writes each repeated value (locations, crime
+ * types, MO text) once and refers back to it afterwards.
+ *
+ * String tags: 0 = null, 1 = inline, 2 = new table entry, n = table[n - 3].
+ */
+public class BinaryWriter implements Closeable, Flushable {
+
+    static final int NULL_STRING = 0;
+    static final int INLINE_STRING = 1;
+    static final int NEW_STRING = 2;
+    static final int FIRST_REFERENCE = 3;
+
+    private final OutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final byte[] scratch = new byte[10];
+
+    /**
+     * Constructor
+     */
+    public BinaryWriter(OutputStream out) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream cannot be null");
+        }
+        this.out = out;
+    }
+
+    // ==================== NUMBERS ====================
+
+    /**
+     * Write a non-negative int in 1-5 bytes
+     */
+    public void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Write an unsigned long in 1-10 bytes
+     */
+    public void writeVarLong(long value) throws IOException {
+        int n = 0;
+        while ((value & ~0x7FL) != 0) {
+            scratch[n++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        scratch[n++] = (byte) value;
+        out.write(scratch, 0, n);
+    }
+
+    /**
+     * Write a signed int, small magnitudes in few bytes
+     */
+    public void writeSignedInt(int value) throws IOException {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public void writeDouble(double value) throws IOException {
+        long bits = Double.doubleToRawLongBits(value);
+        for (int i = 0; i < 8; i++) {
+            scratch[i] = (byte) (bits >>> (56 - 8 * i));
+        }
+        out.write(scratch, 0, 8);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        out.write(value ? 1 : 0);
+    }
+
+    public void writeByte(int value) throws IOException {
+        out.write(value);
+    }
+
+    /**
+     * Write a timestamp (UTC seconds + nanos), null allowed
+     */
+    public void writeTime(LocalDateTime time) throws IOException {
+        if (time == null) {
+            writeBoolean(false);
+            return;
+        }
+        writeBoolean(true);
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        writeVarLong((seconds << 1) ^ (seconds >> 63));
+        writeVarInt(time.getNano());
+    }
+
+    /**
+     * Write a coordinate pair, null allowed
+     */
+    public void writeGeoPoint(GeoPoint point) throws IOException {
+        if (point == null) {
+            writeBoolean(false);
+            return;
+        }
+        writeBoolean(true);
+        writeDouble(point.getLatitude());
+        writeDouble(point.getLongitude());
+    }
+
+    // ==================== STRINGS ====================
+
+    /**
+     * Write a string that is likely to repeat (goes in the string table)
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarInt(NULL_STRING);
+            return;
+        }
+
+        Integer index = strings.get(value);
+        if (index != null) {
+            writeVarInt(FIRST_REFERENCE + index);
+            return;
+        }
+
+        strings.put(value, strings.size());
+        writeVarInt(NEW_STRING);
+        writeUtf8(value);
+    }
+
+    /**
+     * Write a string that is unlikely to repeat (IDs, names, descriptions)
+     */
+    public void writeUniqueString(String value) throws IOException {
+        if (value == null) {
+            writeVarInt(NULL_STRING);
+            return;
+        }
+        writeVarInt(INLINE_STRING);
+        writeUtf8(value);
+    }
+
+    public void writeStringList(List<String> values) throws IOException {
+        writeVarInt(values.size());
+        for (String value : values) {
+            writeString(value);
+        }
+    }
+
+    public void writeStringMap(Map<String, String> values) throws IOException {
+        writeVarInt(values.size());
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            writeString(entry.getKey());
+            writeString(entry.getValue());
+        }
+    }
+
+    private void writeUtf8(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
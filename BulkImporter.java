@@ -0,0 +1,808 @@
+package database;
+
+import models.*;
+import models.criminals.Criminal;
+import utils.Utils;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Bulk Importer
+ * Streams criminals or crime scenes from CSV or JSON-lines files.
+ *
+ * The file is split into byte ranges on line boundaries and the ranges
+ * are parsed and validated in parallel. Parsed rows travel in batches
+ * through a bounded queue to the calling thread, which inserts them with
+ * CriminalDatabase.addCriminals, so memory stays bounded. Index
+ * maintenance is suspended for the whole import and the indexes are
+ * rebuilt once after the last batch rather than per row or per batch.
+ *
+ * CSV files need a header row; column names match the CSV export
+ * (ID, Name, Age, Gender, Type, Danger Level, Status, MO) plus optional
+ * Risk Factor, Locations and Prior Crimes (';' separated). JSON lines use
+ * the same names in any case or spacing (dangerLevel, danger_level), and
+ * arrays for locations and prior crimes. Records must not contain line
+ * breaks. Rows without an ID get a generated one.
+ *
+ * Scenes use ID, Type, Location, Description and Victim Profile.
+ */
+public class BulkImporter {
+
+    public enum Format {
+        CSV, JSONL;
+
+        /**
+         * Pick the format from the file extension (.jsonl / .json, else CSV)
+         */
+        public static Format of(File file) {
+            String name = file.getName().toLowerCase();
+            return name.endsWith(".jsonl") || name.endsWith(".json") ? JSONL : CSV;
+        }
+    }
+
+    private static final int BATCH_SIZE = 4096;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MIN_CHUNK_BYTES = 1 << 20;
+    private static final int MAX_ERRORS = 20;
+
+    // Generated IDs are reserved in blocks per chunk, so parser threads do not contend
+    private static final int ID_BLOCK = 256;
+
+    private static final String[] DANGER_LEVELS = {"LOW", "MEDIUM", "HIGH", "EXTREME"};
+
+    private final CriminalDatabase database;
+    private final int parallelism;
+
+    /**
+     * Constructor - parses on one thread per available core
+     */
+    public BulkImporter(CriminalDatabase database) {
+        this(database, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor with explicit parser thread count
+     */
+    public BulkImporter(CriminalDatabase database, int parallelism) {
+        if (database == null) {
+            throw new IllegalArgumentException("Database cannot be null");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.database = database;
+        this.parallelism = parallelism;
+    }
+
+    // ==================== IMPORT ====================
+
+    /**
+     * Import criminals, picking the format from the file extension
+     */
+    public ImportResult importCriminals(File file) throws IOException {
+        return importCriminals(file, Format.of(file));
+    }
+
+    public ImportResult importCriminals(File file, Format format) throws IOException {
+        return run(file, format, BulkImporter::parseCriminal,
+                () -> Utils.getIdAllocator().criminalIds(ID_BLOCK), new Inserter<Criminal>() {
+            @Override
+            public boolean accept(Criminal criminal, Set<String> seen) {
+                return !database.hasCriminal(criminal.getId()) && seen.add(criminal.getId());
+            }
+
+            @Override
+            public String idOf(Criminal criminal) {
+                return criminal.getId();
+            }
+
+            @Override
+            public void insert(List<Criminal> batch) {
+                database.addCriminals(batch);
+            }
+        });
+    }
+
+    /**
+     * Import crime scenes, picking the format from the file extension
+     */
+    public ImportResult importCrimeScenes(File file) throws IOException {
+        return importCrimeScenes(file, Format.of(file));
+    }
+
+    public ImportResult importCrimeScenes(File file, Format format) throws IOException {
+        return run(file, format, BulkImporter::parseCrimeScene,
+                () -> Utils.getIdAllocator().sceneIds(ID_BLOCK), new Inserter<CrimeScene>() {
+            @Override
+            public boolean accept(CrimeScene scene, Set<String> seen) {
+                return !database.hasCrimeScene(scene.getSceneId()) && seen.add(scene.getSceneId());
+            }
+
+            @Override
+            public String idOf(CrimeScene scene) {
+                return scene.getSceneId();
+            }
+
+            @Override
+            public void insert(List<CrimeScene> batch) {
+                for (CrimeScene scene : batch) {
+                    database.addCrimeScene(scene);
+                }
+            }
+        });
+    }
+
+    // ==================== PIPELINE ====================
+
+    private interface RowParser<T> {
+        T parse(Map<String, String> row, Supplier<String> ids);
+    }
+
+    private interface Inserter<T> {
+        boolean accept(T item, Set<String> seen);
+
+        String idOf(T item);
+
+        void insert(List<T> batch);
+    }
+
+    /**
+     * Parsed rows from one chunk, or the end marker
+     */
+    private static class Batch<T> {
+        final List<T> items = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        int rows;
+        int rejected;
+        boolean last;
+    }
+
+    private <T> ImportResult run(File file, Format format, RowParser<T> parser,
+                                 Supplier<Supplier<String>> idSources, Inserter<T> inserter) throws IOException {
+        if (file == null || !file.isFile()) {
+            throw new IllegalArgumentException("File not found: " + file);
+        }
+        long start = System.nanoTime();
+
+        // Header (CSV) is read up front so every chunk can map its columns
+        long dataStart = 0;
+        List<String> header = null;
+        try (LineReader reader = new LineReader(file, 0)) {
+            if (format == Format.CSV) {
+                String line = reader.readLine();
+                if (line == null) {
+                    return new ImportResult(0, 0, 0, new ArrayList<>(), System.nanoTime() - start);
+                }
+                header = new ArrayList<>();
+                for (String column : splitCsv(line)) {
+                    header.add(normalizeKey(column));
+                }
+                dataStart = reader.position();
+            }
+        }
+
+        List<long[]> chunks = chunks(file.length(), dataStart);
+        BlockingQueue<Batch<T>> queue = new ArrayBlockingQueue<>(parallelism * 2);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, chunks.size()), runnable -> {
+            Thread thread = new Thread(runnable, "bulk-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<String> headerColumns = header;
+        long firstByte = dataStart;
+        List<Future<?>> tasks = new ArrayList<>();
+        for (long[] chunk : chunks) {
+            tasks.add(pool.submit(() -> {
+                parseChunk(file, format, headerColumns, chunk[0], chunk[1], chunk[0] == firstByte,
+                        parser, idSources.get(), queue);
+                return null;
+            }));
+        }
+        pool.shutdown();
+
+        int rows = 0;
+        int imported = 0;
+        int rejected = 0;
+        List<String> errors = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        database.suspendIndexes();
+        try {
+            int finished = 0;
+            while (finished < chunks.size()) {
+                Batch<T> batch = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (batch == null) {
+                    checkFailures(tasks);
+                    continue;
+                }
+
+                rows += batch.rows;
+                rejected += batch.rejected;
+                addErrors(errors, batch.errors);
+
+                List<T> accepted = new ArrayList<>(batch.items.size());
+                for (T item : batch.items) {
+                    if (inserter.accept(item, seen)) {
+                        accepted.add(item);
+                    } else {
+                        rejected++;
+                        addErrors(errors, Collections.singletonList("Duplicate ID: " + inserter.idOf(item)));
+                    }
+                }
+                inserter.insert(accepted);
+                imported += accepted.size();
+
+                if (batch.last) {
+                    finished++;
+                }
+            }
+            checkFailures(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } finally {
+            pool.shutdownNow();
+            database.resumeIndexes();
+        }
+
+        ImportResult result = new ImportResult(rows, imported, rejected, errors, System.nanoTime() - start);
+        System.out.println("✓ " + result);
+        return result;
+    }
+
+    /**
+     * Split [dataStart, length) into byte ranges for the parser threads
+     */
+    private List<long[]> chunks(long length, long dataStart) {
+        long bytes = length - dataStart;
+        int count = (int) Math.max(1, Math.min((long) parallelism * CHUNKS_PER_THREAD,
+                bytes / MIN_CHUNK_BYTES));
+
+        List<long[]> chunks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long from = dataStart + bytes * i / count;
+            long to = dataStart + bytes * (i + 1) / count;
+            chunks.add(new long[]{from, to});
+        }
+        return chunks;
+    }
+
+    /**
+     * Parse every line that starts inside [from, to)
+     */
+    private static <T> void parseChunk(File file, Format format, List<String> header, long from, long to,
+                                       boolean first, RowParser<T> parser, Supplier<String> ids,
+                                       BlockingQueue<Batch<T>> queue)
+            throws IOException, InterruptedException {
+        try (LineReader reader = new LineReader(file, first ? from : from - 1)) {
+            if (!first) {
+                // The line running through 'from' belongs to the previous chunk
+                reader.skipLine();
+            }
+
+            Batch<T> batch = new Batch<>();
+            while (reader.position() < to) {
+                long lineNumber = reader.position();
+                String line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                batch.rows++;
+                try {
+                    Map<String, String> row = format == Format.CSV ? csvRow(header, line) : jsonRow(line);
+                    batch.items.add(parser.parse(row, ids));
+                } catch (IllegalArgumentException e) {
+                    batch.rejected++;
+                    if (batch.errors.size() < MAX_ERRORS) {
+                        batch.errors.add("Byte " + lineNumber + ": " + e.getMessage());
+                    }
+                }
+
+                if (batch.items.size() >= BATCH_SIZE) {
+                    queue.put(batch);
+                    batch = new Batch<>();
+                }
+            }
+
+            batch.last = true;
+            queue.put(batch);
+        }
+    }
+
+    private static void checkFailures(List<Future<?>> tasks) throws IOException, InterruptedException {
+        for (Future<?> task : tasks) {
+            if (task.isDone()) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    throw new IOException("Import failed: " + cause.getMessage(), cause);
+                }
+            }
+        }
+    }
+
+    private static void addErrors(List<String> errors, List<String> more) {
+        for (String error : more) {
+            if (errors.size() >= MAX_ERRORS) {
+                return;
+            }
+            errors.add(error);
+        }
+    }
+
+    // ==================== ROW MAPPING ====================
+
+    /**
+     * Build and validate a criminal from a row
+     */
+    private static Criminal parseCriminal(Map<String, String> row, Supplier<String> ids) {
+        String name = require(row, "name");
+        if (!Utils.isValidName(name)) {
+            throw new IllegalArgumentException("Invalid name: " + name);
+        }
+
+        int age = parseInt(require(row, "age"), "age");
+        if (!Utils.isValidAge(age)) {
+            throw new IllegalArgumentException("Invalid age: " + age);
+        }
+
+        String gender = require(row, "gender");
+        if (!Utils.isValidGender(gender)) {
+            throw new IllegalArgumentException("Invalid gender: " + gender);
+        }
+
+        String type = require(row, "type");
+        String id = row.get("id");
+        if (id == null || id.isEmpty()) {
+            id = ids.get();
+        } else if (!Utils.isValidId(id)) {
+            throw new IllegalArgumentException("Invalid ID: " + id);
+        }
+
+        Criminal criminal = DatabaseManager.createCriminalByType(id, name, age, gender, type);
+
+        String danger = row.get("dangerlevel");
+        if (danger != null && !danger.isEmpty()) {
+            String level = danger.trim().toUpperCase();
+            if (!Arrays.asList(DANGER_LEVELS).contains(level)) {
+                throw new IllegalArgumentException("Invalid danger level: " + danger);
+            }
+            criminal.setDangerLevel(level);
+        }
+
+        String status = row.containsKey("status") ? row.get("status") : row.get("atlarge");
+        if (status != null && !status.isEmpty()) {
+            criminal.setAtLarge(status.equalsIgnoreCase("at large") || status.equalsIgnoreCase("true"));
+        }
+
+        String risk = row.get("riskfactor");
+        if (risk != null && !risk.isEmpty()) {
+            double factor = parseDouble(risk, "risk factor");
+            if (factor < 0.0 || factor > 1.0) {
+                throw new IllegalArgumentException("Risk factor must be between 0 and 1: " + risk);
+            }
+            criminal.setRiskFactor(factor);
+        }
+
+        String mo = row.containsKey("mo") ? row.get("mo") : row.get("modusoperandi");
+        if (mo != null && !mo.isEmpty()) {
+            criminal.setModusOperandi(mo);
+        }
+
+        String profile = row.get("psychologicalprofile");
+        if (profile != null && !profile.isEmpty()) {
+            criminal.setPsychologicalProfile(profile);
+        }
+
+        for (String location : list(row.containsKey("locations") ? row.get("locations") : row.get("knownlocations"))) {
+            if (!Utils.isValidLocation(location)) {
+                throw new IllegalArgumentException("Invalid location: " + location);
+            }
+            criminal.addKnownLocation(location);
+        }
+
+        for (String crime : list(row.get("priorcrimes"))) {
+            criminal.addPriorCrime(crime);
+        }
+
+        return criminal;
+    }
+
+    /**
+     * Build and validate a crime scene from a row
+     */
+    private static CrimeScene parseCrimeScene(Map<String, String> row, Supplier<String> ids) {
+        String type = require(row, row.containsKey("type") ? "type" : "crimetype");
+
+        String location = require(row, "location");
+        if (!Utils.isValidLocation(location)) {
+            throw new IllegalArgumentException("Invalid location: " + location);
+        }
+
+        String id = row.get("id");
+        if (id == null || id.isEmpty()) {
+            id = ids.get();
+        } else if (!Utils.isValidId(id)) {
+            throw new IllegalArgumentException("Invalid ID: " + id);
+        }
+
+        CrimeScene scene = new CrimeScene(id, type, location);
+
+        String description = row.get("description");
+        if (description != null && !description.isEmpty()) {
+            if (!Utils.isValidDescription(description)) {
+                throw new IllegalArgumentException("Invalid description: " + description);
+            }
+            scene.setDescription(description);
+        }
+
+        String victim = row.get("victimprofile");
+        if (victim != null && !victim.isEmpty()) {
+            scene.setVictimProfile(victim);
+        }
+
+        return scene;
+    }
+
+    private static String require(Map<String, String> row, String key) {
+        String value = row.get(key);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        return value.trim();
+    }
+
+    private static int parseInt(String value, String field) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static double parseDouble(String value, String field) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static List<String> list(String value) {
+        List<String> values = new ArrayList<>();
+        if (value != null) {
+            for (String part : value.split(";")) {
+                if (!part.trim().isEmpty()) {
+                    values.add(part.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Lower-case and drop spaces, underscores and dashes ("Danger Level" -> "dangerlevel")
+     */
+    private static String normalizeKey(String key) {
+        StringBuilder normalized = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c != ' ' && c != '_' && c != '-') {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    // ==================== CSV ====================
+
+    private static Map<String, String> csvRow(List<String> header, String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("Too many columns: " + values.size());
+        }
+
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            row.put(header.get(i), values.get(i));
+        }
+        return row;
+    }
+
+    /**
+     * Split a CSV line, honouring quotes and "" escapes
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    // ==================== JSON LINES ====================
+
+    /**
+     * Parse one flat JSON object; arrays of scalars are joined with ';'
+     */
+    private static Map<String, String> jsonRow(String line) {
+        JsonCursor json = new JsonCursor(line);
+        Map<String, String> row = new HashMap<>();
+
+        json.expect('{');
+        if (!json.consume('}')) {
+            do {
+                String key = json.readString();
+                json.expect(':');
+                row.put(normalizeKey(key), json.readValue());
+            } while (json.consume(','));
+            json.expect('}');
+        }
+        json.expectEnd();
+        return row;
+    }
+
+    private static class JsonCursor {
+        private final String text;
+        private int position;
+
+        JsonCursor(String text) {
+            this.text = text;
+        }
+
+        void expect(char c) {
+            if (!consume(c)) {
+                throw new IllegalArgumentException("Expected '" + c + "' at column " + position);
+            }
+        }
+
+        boolean consume(char c) {
+            skipSpace();
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expectEnd() {
+            skipSpace();
+            if (position != text.length()) {
+                throw new IllegalArgumentException("Unexpected text at column " + position);
+            }
+        }
+
+        String readValue() {
+            skipSpace();
+            if (position >= text.length()) {
+                throw new IllegalArgumentException("Missing value");
+            }
+
+            char c = text.charAt(position);
+            if (c == '"') {
+                return readString();
+            }
+            if (c == '[') {
+                position++;
+                StringJoiner values = new StringJoiner(";");
+                if (!consume(']')) {
+                    do {
+                        String value = readValue();
+                        if (value != null) {
+                            values.add(value);
+                        }
+                    } while (consume(','));
+                    expect(']');
+                }
+                return values.toString();
+            }
+            if (c == '{') {
+                throw new IllegalArgumentException("Nested objects are not supported");
+            }
+
+            int start = position;
+            while (position < text.length() && ",}] \t".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            return literal.equals("null") ? null : literal;
+        }
+
+        String readString() {
+            skipSpace();
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case 'n': value.append('\n'); break;
+                    case 't': value.append('\t'); break;
+                    case 'r': value.append('\r'); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw new IllegalArgumentException("Bad unicode escape");
+                        }
+                        value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        position += 4;
+                        break;
+                    default: value.append(escaped);
+                }
+            }
+            throw new IllegalArgumentException("Unterminated string");
+        }
+
+        private void skipSpace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+    }
+
+    // ==================== LINE READER ====================
+
+    /**
+     * UTF-8 line reader that knows its byte position in the file
+     */
+    private static class LineReader implements Closeable {
+        private final FileChannel channel;
+        private final InputStream in;
+        private long position;
+        private byte[] line = new byte[256];
+
+        LineReader(File file, long start) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            channel.position(start);
+            this.in = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16);
+            this.position = start;
+        }
+
+        long position() {
+            return position;
+        }
+
+        void skipLine() throws IOException {
+            int b;
+            while ((b = in.read()) >= 0) {
+                position++;
+                if (b == '\n') {
+                    return;
+                }
+            }
+        }
+
+        String readLine() throws IOException {
+            int length = 0;
+            int b = in.read();
+            if (b < 0) {
+                return null;
+            }
+
+            while (b >= 0) {
+                position++;
+                if (b == '\n') {
+                    break;
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = (byte) b;
+                b = in.read();
+            }
+
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // ==================== RESULT ====================
+
+    /**
+     * Import Result
+     * Row counts, the first few rejection reasons and the throughput.
+     */
+    public static class ImportResult {
+        private final int rowsRead;
+        private final int imported;
+        private final int rejected;
+        private final List<String> errors;
+        private final long elapsedNanos;
+
+        ImportResult(int rowsRead, int imported, int rejected, List<String> errors, long elapsedNanos) {
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getRowsRead() {
+            return rowsRead;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public int getRejected() {
+            return rejected;
+        }
+
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : rowsRead * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Imported %d of %d rows (%d rejected) in %d ms - %.0f rows/s",
+                    imported, rowsRead, rejected, getElapsedMillis(), getRowsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package engine;
+
+import models.Suspect;
+import java.util.*;
+
+/**
+ * Cached Analysis
+ * Ranked suspects for one scene that follow learning model weight changes.
+ *
+ * Every stored feature score is a model weight times a fixed multiplier,
+ * so a weight change only needs a dot product per suspect and a re-sort.
+ * The refresh happens lazily on the next read, so moving several weights
+ * in a row costs one re-rank.
+ */
+public class CachedAnalysis {
+
+    private final ProbabilityEngine engine;
+    private final List<Suspect> suspects;
+
+    // Model and version the current ranking was computed with
+    private SimpleLearningModel weightSource;
+    private long weightVersion;
+
+    /**
+     * Constructor
+     */
+    CachedAnalysis(ProbabilityEngine engine, List<Suspect> suspects) {
+        this.engine = engine;
+        this.suspects = suspects;
+        this.weightSource = engine.getLearningModel();
+        this.weightVersion = weightSource.getVersion();
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Get all suspects ranked with the current weights
+     */
+    public List<Suspect> getSuspects() {
+        refresh();
+        return Collections.unmodifiableList(suspects);
+    }
+
+    /**
+     * Get the top suspects ranked with the current weights
+     */
+    public List<Suspect> getTopSuspects(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
+        }
+        refresh();
+        return new ArrayList<>(suspects.subList(0, Math.min(count, suspects.size())));
+    }
+
+    /**
+     * Check whether the ranking predates the latest weight change
+     */
+    public boolean isStale() {
+        SimpleLearningModel model = engine.getLearningModel();
+        return model != weightSource || model.getVersion() != weightVersion;
+    }
+
+    private void refresh() {
+        if (!isStale()) {
+            return;
+        }
+        weightSource = engine.getLearningModel();
+        weightVersion = weightSource.getVersion();
+        engine.reweightSuspects(suspects);
+    }
+}
@@ -0,0 +1,465 @@
+package database;
+
+import models.*;
+import models.criminals.Criminal;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Columnar Snapshot
+ * Read-optimized database file that is memory-mapped instead of loaded.
+ *
+ * Criminal attributes used by scans sit in flat columns (age, risk factor,
+ * danger level, at-large status, type code), names and IDs in offset +
+ * byte tables, and known locations as IDs into a location dictionary.
+ * Every criminal and scene is also stored as a BinaryCodec record, so a
+ * full object is only decoded when it is actually asked for. IDs are
+ * found by binary search over a sorted ordinal column.
+ *
+ * Files are limited to 2 GB (one mapping).
+ */
+public class ColumnarSnapshot {
+
+    // Format version; only the current layout is read
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x43504353; // "CPCS"
+
+    // Danger level column codes; anything else is stored as OTHER_DANGER
+    private static final String[] DANGER_LEVELS = {"LOW", "MEDIUM", "HIGH", "EXTREME"};
+    private static final byte OTHER_DANGER = -1;
+
+    // Section table, in file order
+    private static final int AGE = 0;
+    private static final int RISK = 1;
+    private static final int DANGER = 2;
+    private static final int AT_LARGE = 3;
+    private static final int TYPE = 4;
+    private static final int ID_OFFSETS = 5;
+    private static final int ID_BYTES = 6;
+    private static final int NAME_OFFSETS = 7;
+    private static final int NAME_BYTES = 8;
+    private static final int LOCATION_OFFSETS = 9;
+    private static final int LOCATIONS = 10;
+    private static final int DICTIONARY_OFFSETS = 11;
+    private static final int DICTIONARY_BYTES = 12;
+    private static final int ID_ORDER = 13;
+    private static final int RECORD_OFFSETS = 14;
+    private static final int RECORD_BYTES = 15;
+    private static final int SCENE_OFFSETS = 16;
+    private static final int SCENE_BYTES = 17;
+    private static final int SECTION_COUNT = 18;
+
+    // magic, version, sequence, criminal count, scene count, location count
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 4 + 8 * SECTION_COUNT;
+
+    private final ByteBuffer buffer;
+    private final long sequence;
+    private final int criminalCount;
+    private final int sceneCount;
+    private final int[] sections;
+    private final Map<String, Integer> locationIds;
+
+    /**
+     * Constructor - reads the header of a mapped file
+     */
+    private ColumnarSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a columnar snapshot");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version: " + version);
+        }
+
+        this.sequence = buffer.getLong(8);
+        this.criminalCount = buffer.getInt(16);
+        this.sceneCount = buffer.getInt(20);
+        int locationCount = buffer.getInt(24);
+
+        this.sections = new int[SECTION_COUNT];
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            sections[i] = (int) buffer.getLong(28 + 8 * i);
+        }
+
+        // The dictionary is small (distinct locations), so keep it on heap
+        this.locationIds = new HashMap<>();
+        for (int i = 0; i < locationCount; i++) {
+            locationIds.put(string(DICTIONARY_OFFSETS, DICTIONARY_BYTES, i), i);
+        }
+    }
+
+    // ==================== OPEN ====================
+
+    /**
+     * Memory-map a snapshot file
+     */
+    public static ColumnarSnapshot open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + size + " bytes");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new ColumnarSnapshot(mapped);
+        }
+    }
+
+    /**
+     * Check whether a file is a columnar snapshot
+     */
+    public static boolean isColumnar(File file) throws IOException {
+        if (file.length() < HEADER_BYTES) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        }
+    }
+
+    // ==================== COLUMNS ====================
+
+    public int size() {
+        return criminalCount;
+    }
+
+    /**
+     * Journal sequence the snapshot was taken at (0 if none)
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getAge(int ordinal) {
+        return buffer.getInt(sections[AGE] + 4 * ordinal);
+    }
+
+    public double getRiskFactor(int ordinal) {
+        return buffer.getDouble(sections[RISK] + 8 * ordinal);
+    }
+
+    public boolean isAtLarge(int ordinal) {
+        return buffer.get(sections[AT_LARGE] + ordinal) != 0;
+    }
+
+    public int getTypeCode(int ordinal) {
+        return buffer.get(sections[TYPE] + ordinal);
+    }
+
+    /**
+     * Danger level, or null if it is not one of the standard levels
+     */
+    public String getDangerLevel(int ordinal) {
+        byte code = buffer.get(sections[DANGER] + ordinal);
+        return code == OTHER_DANGER ? null : DANGER_LEVELS[code];
+    }
+
+    public String getId(int ordinal) {
+        return string(ID_OFFSETS, ID_BYTES, ordinal);
+    }
+
+    public String getName(int ordinal) {
+        return string(NAME_OFFSETS, NAME_BYTES, ordinal);
+    }
+
+    /**
+     * Dictionary ID of a location (case-insensitive), or -1 if no criminal has it
+     */
+    public int locationId(String location) {
+        Integer id = locationIds.get(LocationDictionary.canonical(location));
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Check whether a criminal operates in a location from locationId()
+     */
+    public boolean operatesIn(int ordinal, int locationId) {
+        int start = sections[LOCATIONS] + 4 * buffer.getInt(sections[LOCATION_OFFSETS] + 4 * ordinal);
+        int end = sections[LOCATIONS] + 4 * buffer.getInt(sections[LOCATION_OFFSETS] + 4 * (ordinal + 1));
+        for (int position = start; position < end; position += 4) {
+            if (buffer.getInt(position) == locationId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ordinal of a criminal ID, or -1
+     */
+    public int indexOf(String id) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = criminalCount - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int ordinal = buffer.getInt(sections[ID_ORDER] + 4 * middle);
+            int start = buffer.getInt(sections[ID_OFFSETS] + 4 * ordinal);
+            int end = buffer.getInt(sections[ID_OFFSETS] + 4 * (ordinal + 1));
+
+            int cmp = compare(sections[ID_BYTES] + start, end - start, key);
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle - 1;
+            } else {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    // ==================== RECORDS ====================
+
+    /**
+     * Decode the full criminal at an ordinal
+     */
+    public Criminal readCriminal(int ordinal) throws IOException {
+        return BinaryCodec.decodeCriminal(record(RECORD_OFFSETS, RECORD_BYTES, ordinal));
+    }
+
+    /**
+     * Decode all crime scenes
+     */
+    public List<CrimeScene> readCrimeScenes() throws IOException {
+        List<CrimeScene> scenes = new ArrayList<>(sceneCount);
+        for (int i = 0; i < sceneCount; i++) {
+            scenes.add(BinaryCodec.decodeCrimeScene(record(SCENE_OFFSETS, SCENE_BYTES, i)));
+        }
+        return scenes;
+    }
+
+    private byte[] record(int offsets, int bytes, int ordinal) {
+        long start = buffer.getLong(sections[offsets] + 8 * ordinal);
+        long end = buffer.getLong(sections[offsets] + 8 * (ordinal + 1));
+        byte[] record = new byte[(int) (end - start)];
+        buffer.duplicate().position(sections[bytes] + (int) start).get(record);
+        return record;
+    }
+
+    private String string(int offsets, int bytes, int ordinal) {
+        int start = buffer.getInt(sections[offsets] + 4 * ordinal);
+        int end = buffer.getInt(sections[offsets] + 4 * (ordinal + 1));
+        byte[] value = new byte[end - start];
+        buffer.duplicate().position(sections[bytes] + start).get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private int compare(int position, int length, byte[] key) {
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(buffer.get(position + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        int common = Math.min(a.length, b.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(a[i] & 0xFF, b[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    // ==================== WRITE ====================
+
+    /**
+     * Write a database as a columnar snapshot
+     */
+    public static void write(CriminalDatabase database, File file, long sequence) throws IOException {
+        List<Criminal> criminals = database.getAllCriminals();
+        List<CrimeScene> scenes = database.getAllCrimeScenes();
+        int n = criminals.size();
+
+        byte[][] ids = new byte[n][];
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        int[][] locations = new int[n][];
+        for (int i = 0; i < n; i++) {
+            Criminal criminal = criminals.get(i);
+            ids[i] = criminal.getId().getBytes(StandardCharsets.UTF_8);
+
+            List<String> known = criminal.getKnownLocationsView();
+            int[] row = new int[known.size()];
+            int count = 0;
+            for (String location : known) {
+                int id = dictionary.computeIfAbsent(LocationDictionary.canonical(location), k -> dictionary.size());
+                if (!contains(row, count, id)) {
+                    row[count++] = id;
+                }
+            }
+            locations[i] = Arrays.copyOf(row, count);
+        }
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> compare(ids[a], ids[b]));
+
+        long[] sectionStarts = new long[SECTION_COUNT];
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_BYTES);
+            CountingOutput out = new CountingOutput(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), HEADER_BYTES);
+
+            sectionStarts[AGE] = out.position();
+            for (Criminal criminal : criminals) {
+                out.writeInt(criminal.getAge());
+            }
+            sectionStarts[RISK] = out.position();
+            for (Criminal criminal : criminals) {
+                out.writeDouble(criminal.getRiskFactor());
+            }
+            sectionStarts[DANGER] = out.position();
+            for (Criminal criminal : criminals) {
+                out.writeByte(dangerCode(criminal.getDangerLevel()));
+            }
+            sectionStarts[AT_LARGE] = out.position();
+            for (Criminal criminal : criminals) {
+                out.writeBoolean(criminal.isAtLarge());
+            }
+            sectionStarts[TYPE] = out.position();
+            for (Criminal criminal : criminals) {
+                out.writeByte(criminal.getCriminalTypeCode());
+            }
+
+            List<byte[]> names = new ArrayList<>(n);
+            for (Criminal criminal : criminals) {
+                names.add(criminal.getName().getBytes(StandardCharsets.UTF_8));
+            }
+            writeStrings(out, Arrays.asList(ids), sectionStarts, ID_OFFSETS, ID_BYTES);
+            writeStrings(out, names, sectionStarts, NAME_OFFSETS, NAME_BYTES);
+
+            sectionStarts[LOCATION_OFFSETS] = out.position();
+            int locationOffset = 0;
+            out.writeInt(0);
+            for (int[] row : locations) {
+                locationOffset += row.length;
+                out.writeInt(locationOffset);
+            }
+            sectionStarts[LOCATIONS] = out.position();
+            for (int[] row : locations) {
+                for (int id : row) {
+                    out.writeInt(id);
+                }
+            }
+
+            List<byte[]> dictionaryBytes = new ArrayList<>();
+            for (String location : dictionary.keySet()) {
+                dictionaryBytes.add(location.getBytes(StandardCharsets.UTF_8));
+            }
+            writeStrings(out, dictionaryBytes, sectionStarts, DICTIONARY_OFFSETS, DICTIONARY_BYTES);
+
+            sectionStarts[ID_ORDER] = out.position();
+            for (int ordinal : order) {
+                out.writeInt(ordinal);
+            }
+
+            List<byte[]> records = new ArrayList<>(n);
+            for (Criminal criminal : criminals) {
+                records.add(BinaryCodec.encode(criminal));
+            }
+            writeRecords(out, records, sectionStarts, RECORD_OFFSETS, RECORD_BYTES);
+
+            List<byte[]> sceneRecords = new ArrayList<>(scenes.size());
+            for (CrimeScene scene : scenes) {
+                sceneRecords.add(BinaryCodec.encode(scene));
+            }
+            writeRecords(out, sceneRecords, sectionStarts, SCENE_OFFSETS, SCENE_BYTES);
+
+            out.flush();
+            if (out.position() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + out.position() + " bytes");
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(sequence)
+                    .putInt(n).putInt(scenes.size()).putInt(dictionary.size());
+            for (long start : sectionStarts) {
+                header.putLong(start);
+            }
+            header.flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+    }
+
+    private static void writeStrings(CountingOutput out, List<byte[]> values, long[] sectionStarts,
+                                     int offsets, int bytes) throws IOException {
+        sectionStarts[offsets] = out.position();
+        int offset = 0;
+        out.writeInt(0);
+        for (byte[] value : values) {
+            offset += value.length;
+            out.writeInt(offset);
+        }
+        sectionStarts[bytes] = out.position();
+        for (byte[] value : values) {
+            out.write(value);
+        }
+    }
+
+    private static void writeRecords(CountingOutput out, List<byte[]> records, long[] sectionStarts,
+                                     int offsets, int bytes) throws IOException {
+        sectionStarts[offsets] = out.position();
+        long offset = 0;
+        out.writeLong(0);
+        for (byte[] record : records) {
+            offset += record.length;
+            out.writeLong(offset);
+        }
+        sectionStarts[bytes] = out.position();
+        for (byte[] record : records) {
+            out.write(record);
+        }
+    }
+
+    private static byte dangerCode(String level) {
+        for (int i = 0; i < DANGER_LEVELS.length; i++) {
+            if (DANGER_LEVELS[i].equals(level)) {
+                return (byte) i;
+            }
+        }
+        return OTHER_DANGER;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Data output that tracks its absolute file position
+     */
+    private static class CountingOutput extends DataOutputStream {
+        private final long base;
+
+        CountingOutput(OutputStream out, long base) {
+            super(out);
+            this.base = base;
+        }
+
+        long position() {
+            return base + written;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package models;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -25,6 +27,8 @@ import java.util.*;
  */
 public class CrimeScene implements java.io.Serializable {
 
+    private static final long serialVersionUID = 3733267751872722309L;
+
     // Valid crime types
     private static final String[] VALID_CRIME_TYPES = {
             "Murder", "Theft", "Assault", "Fraud", "Arson", "Kidnapping",
@@ -35,7 +39,9 @@ public class CrimeScene implements java.io.Serializable {
     // Core fields
     private String sceneId;
     private String crimeType;
+    private int crimeTypeCode;
     private String location;
+    private GeoPoint coordinates;
     private String description;
 
     // Time tracking
@@ -44,6 +50,7 @@ public class CrimeScene implements java.io.Serializable {
 
     // Evidence and characteristics
     private List<Evidence> evidenceList;
+    private transient volatile List<Evidence> evidenceView;
     private Map<String, String> sceneCharacteristics;
 
     // Victim and scene details
@@ -54,6 +61,9 @@ public class CrimeScene implements java.io.Serializable {
     private boolean isSecured;
     private String investigatorInCharge;
 
+    // Change listeners (not persisted)
+    private transient volatile List<CrimeSceneListener> listeners;
+
     /**
      * Constructor with validation
      */
@@ -80,10 +90,12 @@ public class CrimeScene implements java.io.Serializable {
         // Initialize fields
         this.sceneId = sceneId;
         this.crimeType = crimeType;
+        this.crimeTypeCode = crimeTypeCodeOf(crimeType);
         this.location = location;
         this.timeOfCrime = LocalDateTime.now();
         this.discoveryTime = LocalDateTime.now();
         this.evidenceList = new ArrayList<>();
+        this.evidenceView = List.of();
         this.sceneCharacteristics = new HashMap<>();
         this.isSecured = false;
     }
@@ -107,6 +119,18 @@ public class CrimeScene implements java.io.Serializable {
         return VALID_CRIME_TYPES.clone();
     }
 
+    /**
+     * Get type code for a crime type (-1 if invalid)
+     */
+    public static int crimeTypeCodeOf(String type) {
+        for (int i = 0; i < VALID_CRIME_TYPES.length; i++) {
+            if (VALID_CRIME_TYPES[i].equalsIgnoreCase(type)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     // ==================== EVIDENCE MANAGEMENT ====================
 
     /**
@@ -123,17 +147,27 @@ public class CrimeScene implements java.io.Serializable {
         }
 
         evidenceList.add(evidence);
+        evidenceView = List.copyOf(evidenceList);
+        for (CrimeSceneListener listener : listeners()) {
+            listener.evidenceChanged(this, evidence, true);
+        }
     }
 
     /**
      * Remove evidence from scene
      */
     public void removeEvidence(String evidenceId) {
-        boolean removed = evidenceList.removeIf(e -> e.getEvidenceId().equals(evidenceId));
-        if (!removed) {
+        Evidence evidence = getEvidence(evidenceId);
+        if (evidence == null) {
             throw new IllegalArgumentException(
                     "Evidence " + evidenceId + " not found in scene");
         }
+
+        evidenceList.remove(evidence);
+        evidenceView = List.copyOf(evidenceList);
+        for (CrimeSceneListener listener : listeners()) {
+            listener.evidenceChanged(this, evidence, false);
+        }
     }
 
     /**
@@ -184,6 +218,9 @@ public class CrimeScene implements java.io.Serializable {
             throw new IllegalArgumentException("Characteristic key cannot be empty");
         }
         sceneCharacteristics.put(key, value);
+        for (CrimeSceneListener listener : listeners()) {
+            listener.characteristicChanged(this, key);
+        }
     }
 
     /**
@@ -204,7 +241,43 @@ public class CrimeScene implements java.io.Serializable {
      * Remove characteristic
      */
     public void removeCharacteristic(String key) {
-        sceneCharacteristics.remove(key);
+        if (sceneCharacteristics.containsKey(key)) {
+            sceneCharacteristics.remove(key);
+            for (CrimeSceneListener listener : listeners()) {
+                listener.characteristicChanged(this, key);
+            }
+        }
+    }
+
+    // ==================== CHANGE LISTENERS ====================
+
+    /**
+     * Register a listener for scoring-relevant changes
+     */
+    public synchronized void addListener(CrimeSceneListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        List<CrimeSceneListener> updated = new ArrayList<>(listeners());
+        updated.add(listener);
+        listeners = updated;
+    }
+
+    /**
+     * Unregister a listener
+     */
+    public synchronized void removeListener(CrimeSceneListener listener) {
+        List<CrimeSceneListener> updated = new ArrayList<>(listeners());
+        updated.remove(listener);
+        listeners = updated;
+    }
+
+    /**
+     * Current listeners (copy-on-write, safe to iterate)
+     */
+    private List<CrimeSceneListener> listeners() {
+        List<CrimeSceneListener> current = listeners;
+        return current != null ? current : Collections.emptyList();
     }
 
     // ==================== SCENE SECURITY ====================
@@ -237,10 +310,21 @@ public class CrimeScene implements java.io.Serializable {
         return crimeType;
     }
 
+    public int getCrimeTypeCode() {
+        return crimeTypeCode;
+    }
+
     public String getLocation() {
         return location;
     }
 
+    /**
+     * Get the scene coordinates (null if not known)
+     */
+    public GeoPoint getCoordinates() {
+        return coordinates;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -257,10 +341,27 @@ public class CrimeScene implements java.io.Serializable {
         return new ArrayList<>(evidenceList); // Return copy
     }
 
+    /**
+     * Immutable list of the evidence, copied once per change and shared
+     * by every caller until the next one.
+     * The copy is made by the change itself, so a reader never publishes
+     * a list that a concurrent change has already replaced.
+     */
+    public List<Evidence> getEvidenceView() {
+        return evidenceView;
+    }
+
     public Map<String, String> getSceneCharacteristics() {
         return new HashMap<>(sceneCharacteristics); // Return copy
     }
 
+    /**
+     * Read-only view of the characteristics; no copy
+     */
+    public Map<String, String> getSceneCharacteristicsView() {
+        return Collections.unmodifiableMap(sceneCharacteristics);
+    }
+
     public String getVictimProfile() {
         return victimProfile;
     }
@@ -288,6 +389,9 @@ public class CrimeScene implements java.io.Serializable {
             throw new IllegalArgumentException("Crime time cannot be in the future");
         }
         this.timeOfCrime = time;
+        for (CrimeSceneListener listener : listeners()) {
+            listener.timeOfCrimeChanged(this);
+        }
     }
 
     public void setDiscoveryTime(LocalDateTime time) {
@@ -299,6 +403,19 @@ public class CrimeScene implements java.io.Serializable {
 
     public void setVictimProfile(String profile) {
         this.victimProfile = profile;
+        for (CrimeSceneListener listener : listeners()) {
+            listener.victimProfileChanged(this);
+        }
+    }
+
+    /**
+     * Set or clear (null) the scene coordinates
+     */
+    public void setCoordinates(GeoPoint coordinates) {
+        this.coordinates = coordinates;
+        for (CrimeSceneListener listener : listeners()) {
+            listener.coordinatesChanged(this);
+        }
     }
 
     public void setWeatherConditions(String conditions) {
@@ -331,6 +448,64 @@ public class CrimeScene implements java.io.Serializable {
                 sceneId, crimeType, location, getFormattedTimeOfCrime());
     }
 
+    // ==================== BINARY FORMAT ====================
+
+    /**
+     * Write this scene and its evidence in the compact binary format
+     */
+    public void writeTo(BinaryWriter out) throws IOException {
+        out.writeUniqueString(sceneId);
+        out.writeString(crimeType);
+        out.writeString(location);
+        out.writeUniqueString(description);
+        out.writeTime(timeOfCrime);
+        out.writeTime(discoveryTime);
+        out.writeStringMap(sceneCharacteristics);
+        out.writeString(victimProfile);
+        out.writeString(weatherConditions);
+        out.writeBoolean(isSecured);
+        out.writeString(investigatorInCharge);
+        out.writeGeoPoint(coordinates);
+
+        out.writeVarInt(evidenceList.size());
+        for (Evidence evidence : evidenceList) {
+            evidence.writeTo(out);
+        }
+    }
+
+    /**
+     * Read a scene written by writeTo
+     */
+    public static CrimeScene readFrom(BinaryReader in) throws IOException {
+        CrimeScene scene = new CrimeScene(in.readString(), in.readString(), in.readString());
+        scene.description = in.readString();
+        scene.timeOfCrime = in.readTime();
+        scene.discoveryTime = in.readTime();
+        scene.sceneCharacteristics = in.readStringMap();
+        scene.victimProfile = in.readString();
+        scene.weatherConditions = in.readString();
+        scene.isSecured = in.readBoolean();
+        scene.investigatorInCharge = in.readString();
+        scene.coordinates = in.readGeoPoint();
+
+        int evidenceCount = in.readVarInt();
+        for (int i = 0; i < evidenceCount; i++) {
+            scene.evidenceList.add(Evidence.readFrom(in));
+        }
+        scene.evidenceView = List.copyOf(scene.evidenceList);
+        return scene;
+    }
+
+    /**
+     * Saves from before the type code was stored leave it at 0.
+     * The evidence view is not persisted and is rebuilt here.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.crimeTypeCode = crimeTypeCodeOf(crimeType);
+        this.evidenceView = List.copyOf(evidenceList);
+    }
+
     // ==================== OBJECT METHODS ====================
 
     @Override
@@ -0,0 +1,33 @@
+package models;
+
+/**
+ * Crime Scene Listener
+ * Notified when scene details that affect suspect scoring change.
+ */
+public interface CrimeSceneListener {
+
+    /**
+     * Evidence was added to or removed from the scene
+     */
+    void evidenceChanged(CrimeScene scene, Evidence evidence, boolean added);
+
+    /**
+     * A scene characteristic was added, replaced or removed
+     */
+    void characteristicChanged(CrimeScene scene, String key);
+
+    /**
+     * The victim profile was changed
+     */
+    void victimProfileChanged(CrimeScene scene);
+
+    /**
+     * The scene coordinates were set or cleared
+     */
+    void coordinatesChanged(CrimeScene scene);
+
+    /**
+     * The time of crime was set or cleared
+     */
+    void timeOfCrimeChanged(CrimeScene scene);
+}
@@ -1,6 +1,16 @@
 package models.criminals;
 
+import models.ActivityHistogram;
+import models.BinaryReader;
+import models.BinaryWriter;
+import models.CrimeScene;
+import models.GeoPoint;
+import models.LocationDictionary;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.*;
 
 /**
@@ -9,12 +19,22 @@ import java.util.*;
  */
 public abstract class Criminal implements Serializable {
 
+    private static final long serialVersionUID = -7823109286631587448L;
+
+    // Known criminal types (index = type code)
+    private static final String[] CRIMINAL_TYPES = {
+            "Serial Killer", "Thief", "Violent Offender", "Fraudster", "Arsonist",
+            "Drug Trafficker", "Cyber Criminal", "Robber", "Kidnapper", "Money Launderer",
+            "Organized Crime Boss", "Human Trafficker", "Sexual Offender", "Terrorist"
+    };
+
     // Core attributes
     private String id;
     private String name;
     private int age;
     private String gender;
     private String criminalType;
+    private int criminalTypeCode;
 
     // Behavioral attributes
     private String modusOperandi;
@@ -22,6 +42,18 @@ public abstract class Criminal implements Serializable {
     private List<String> knownLocations;
     private List<String> priorCrimes;
 
+    // Coordinates of known locations, where known (by location name)
+    private Map<String, GeoPoint> locationCoordinates;
+
+    // Sorted LocationDictionary IDs of knownLocations, rebuilt on load
+    private transient int[] locationIds;
+    private transient List<GeoPoint> knownPoints;
+
+    // Linked crime scenes by ID with their time of crime when linked.
+    // Replaced rather than edited, so views handed out stay consistent.
+    private Map<String, LocalDateTime> linkedScenes;
+    private transient ActivityHistogram activity;
+
     // Status attributes
     private boolean atLarge;
     private String dangerLevel;
@@ -36,14 +68,38 @@ public abstract class Criminal implements Serializable {
         this.age = age;
         this.gender = gender;
         this.criminalType = criminalType;
+        this.criminalTypeCode = typeCodeOf(criminalType);
         this.knownLocations = new ArrayList<>();
         this.priorCrimes = new ArrayList<>();
+        this.locationCoordinates = new LinkedHashMap<>();
+        this.locationIds = new int[0];
+        this.linkedScenes = new LinkedHashMap<>();
+        this.activity = ActivityHistogram.EMPTY;
         this.atLarge = true;
         this.dangerLevel = "MEDIUM";
         this.riskFactor = 0.5;
         this.modusOperandi = "Unknown";
     }
 
+    /**
+     * Get list of known criminal types
+     */
+    public static String[] getCriminalTypes() {
+        return CRIMINAL_TYPES.clone();
+    }
+
+    /**
+     * Get type code for a criminal type (-1 if unknown)
+     */
+    public static int typeCodeOf(String criminalType) {
+        for (int i = 0; i < CRIMINAL_TYPES.length; i++) {
+            if (CRIMINAL_TYPES[i].equalsIgnoreCase(criminalType)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     // ==================== GETTERS ====================
 
     public String getId() {
@@ -66,6 +122,10 @@ public abstract class Criminal implements Serializable {
         return criminalType;
     }
 
+    public int getCriminalTypeCode() {
+        return criminalTypeCode;
+    }
+
     public String getModusOperandi() {
         return modusOperandi;
     }
@@ -78,10 +138,24 @@ public abstract class Criminal implements Serializable {
         return new ArrayList<>(knownLocations);
     }
 
+    /**
+     * Read-only view of the known locations; no copy
+     */
+    public List<String> getKnownLocationsView() {
+        return Collections.unmodifiableList(knownLocations);
+    }
+
     public List<String> getPriorCrimes() {
         return new ArrayList<>(priorCrimes);
     }
 
+    /**
+     * Read-only view of the prior crimes; no copy
+     */
+    public List<String> getPriorCrimesView() {
+        return Collections.unmodifiableList(priorCrimes);
+    }
+
     public boolean isAtLarge() {
         return atLarge;
     }
@@ -119,9 +193,24 @@ public abstract class Criminal implements Serializable {
     // ==================== LIST OPERATIONS ====================
 
     public void addKnownLocation(String location) {
-        if (!knownLocations.contains(location)) {
-            knownLocations.add(location);
+        int id = LocationDictionary.intern(location);
+        int pos = Arrays.binarySearch(locationIds, id);
+
+        // Only a case variant of a known location needs the exact list check
+        if (pos >= 0 || id < 0) {
+            if (!knownLocations.contains(location)) {
+                knownLocations.add(location);
+            }
+            return;
         }
+
+        knownLocations.add(location);
+        int insert = -pos - 1;
+        int[] ids = new int[locationIds.length + 1];
+        System.arraycopy(locationIds, 0, ids, 0, insert);
+        ids[insert] = id;
+        System.arraycopy(locationIds, insert, ids, insert + 1, locationIds.length - insert);
+        locationIds = ids;
     }
 
     public void addPriorCrime(String crime) {
@@ -130,14 +219,264 @@ public abstract class Criminal implements Serializable {
         }
     }
 
+    /**
+     * Add a known location with its coordinates
+     */
+    public void addKnownLocation(String location, GeoPoint coordinates) {
+        addKnownLocation(location);
+        if (location != null && coordinates != null) {
+            locationCoordinates.put(location, coordinates);
+            knownPoints = null;
+        }
+    }
+
+    /**
+     * Get the coordinates of a known location (null if not known)
+     */
+    public GeoPoint getLocationCoordinates(String location) {
+        return locationCoordinates.get(location);
+    }
+
+    /**
+     * Coordinates of all known locations that have them; cached until the
+     * next change
+     */
+    public List<GeoPoint> getKnownPointsView() {
+        List<GeoPoint> points = knownPoints;
+        if (points == null) {
+            points = List.copyOf(locationCoordinates.values());
+            knownPoints = points;
+        }
+        return points;
+    }
+
     public boolean operatesInLocation(String location) {
-        return knownLocations.stream()
-                .anyMatch(loc -> loc.equalsIgnoreCase(location));
+        return operatesInLocation(LocationDictionary.find(location));
+    }
+
+    /**
+     * Check a location by its LocationDictionary ID
+     */
+    public boolean operatesInLocation(int locationId) {
+        return locationId >= 0 && Arrays.binarySearch(locationIds, locationId) >= 0;
+    }
+
+    /**
+     * Sorted LocationDictionary IDs of the known locations
+     */
+    public int[] getLocationIds() {
+        return locationIds.clone();
     }
 
     public boolean hasCommitted(String crimeType) {
-        return priorCrimes.stream()
-                .anyMatch(crime -> crime.equalsIgnoreCase(crimeType));
+        return containsIgnoreCase(priorCrimes, crimeType);
+    }
+
+    // Plain loop: called per criminal in the scoring loop
+    private static boolean containsIgnoreCase(List<String> values, String value) {
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i).equalsIgnoreCase(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==================== LINKED SCENES ====================
+
+    /**
+     * Link a crime scene to this criminal, counting its time of crime in
+     * the activity histogram. Linking again after the scene's time changed
+     * moves the count. Returns false if nothing changed.
+     */
+    public boolean linkScene(CrimeScene scene) {
+        if (scene == null) {
+            throw new IllegalArgumentException("Crime scene cannot be null");
+        }
+        String sceneId = scene.getSceneId();
+        LocalDateTime time = scene.getTimeOfCrime();
+        if (linkedScenes.containsKey(sceneId) && Objects.equals(linkedScenes.get(sceneId), time)) {
+            return false;
+        }
+
+        Map<String, LocalDateTime> updated = new LinkedHashMap<>(linkedScenes);
+        updated.put(sceneId, time);
+        setLinkedScenes(updated);
+        return true;
+    }
+
+    /**
+     * Remove a scene link. Returns false if the scene was not linked.
+     */
+    public boolean unlinkScene(String sceneId) {
+        if (!linkedScenes.containsKey(sceneId)) {
+            return false;
+        }
+
+        Map<String, LocalDateTime> updated = new LinkedHashMap<>(linkedScenes);
+        updated.remove(sceneId);
+        setLinkedScenes(updated);
+        return true;
+    }
+
+    public boolean isLinkedTo(String sceneId) {
+        return linkedScenes.containsKey(sceneId);
+    }
+
+    /**
+     * Linked scene IDs and their times of crime, in link order
+     */
+    public Map<String, LocalDateTime> getLinkedScenesView() {
+        return Collections.unmodifiableMap(linkedScenes);
+    }
+
+    /**
+     * Linked crimes by hour of day and day of week
+     */
+    public ActivityHistogram getActivity() {
+        return activity;
+    }
+
+    private void setLinkedScenes(Map<String, LocalDateTime> scenes) {
+        this.linkedScenes = scenes;
+        this.activity = ActivityHistogram.of(scenes.values());
+    }
+
+    // ==================== BINARY FORMAT ====================
+
+    /**
+     * Write this criminal in the compact binary format.
+     * The type code comes first so the reader knows which subclass to build.
+     */
+    public void writeTo(BinaryWriter out) throws IOException {
+        out.writeVarInt(criminalTypeCode);
+        out.writeUniqueString(id);
+        out.writeUniqueString(name);
+        out.writeVarInt(age);
+        out.writeString(gender);
+        out.writeString(modusOperandi);
+        out.writeString(psychologicalProfile);
+        out.writeStringList(knownLocations);
+        out.writeVarInt(locationCoordinates.size());
+        for (Map.Entry<String, GeoPoint> entry : locationCoordinates.entrySet()) {
+            out.writeString(entry.getKey());
+            out.writeGeoPoint(entry.getValue());
+        }
+        out.writeVarInt(linkedScenes.size());
+        for (Map.Entry<String, LocalDateTime> entry : linkedScenes.entrySet()) {
+            out.writeString(entry.getKey());
+            out.writeTime(entry.getValue());
+        }
+        out.writeStringList(priorCrimes);
+        out.writeBoolean(atLarge);
+        out.writeString(dangerLevel);
+        out.writeDouble(riskFactor);
+        writeDetails(out);
+    }
+
+    /**
+     * Read a criminal written by writeTo
+     */
+    public static Criminal readFrom(BinaryReader in) throws IOException {
+        int typeCode = in.readVarInt();
+        Criminal criminal = newOfType(typeCode, in.readString(), in.readString(), in.readVarInt(), in.readString());
+        criminal.modusOperandi = in.readString();
+        criminal.psychologicalProfile = in.readString();
+        criminal.knownLocations = in.readStringList();
+        criminal.locationIds = internAll(criminal.knownLocations);
+        int pointCount = in.readVarInt();
+        for (int i = 0; i < pointCount; i++) {
+            String location = in.readString();
+            GeoPoint point = in.readGeoPoint();
+            if (location != null && point != null) {
+                criminal.locationCoordinates.put(location, point);
+            }
+        }
+        int sceneCount = in.readVarInt();
+        Map<String, LocalDateTime> scenes = new LinkedHashMap<>();
+        for (int i = 0; i < sceneCount; i++) {
+            String sceneId = in.readString();
+            LocalDateTime time = in.readTime();
+            if (sceneId != null) {
+                scenes.put(sceneId, time);
+            }
+        }
+        criminal.setLinkedScenes(scenes);
+        criminal.priorCrimes = in.readStringList();
+        criminal.atLarge = in.readBoolean();
+        criminal.dangerLevel = in.readString();
+        criminal.riskFactor = in.readDouble();
+        criminal.readDetails(in);
+        return criminal;
+    }
+
+    /**
+     * Write the subclass fields
+     */
+    protected abstract void writeDetails(BinaryWriter out) throws IOException;
+
+    /**
+     * Read the subclass fields in the order writeDetails wrote them
+     */
+    protected abstract void readDetails(BinaryReader in) throws IOException;
+
+    private static Criminal newOfType(int typeCode, String id, String name, int age, String gender)
+            throws IOException {
+        switch (typeCode) {
+            case 0: return new SerialKiller(id, name, age, gender);
+            case 1: return new Thief(id, name, age, gender);
+            case 2: return new ViolentOffender(id, name, age, gender);
+            case 3: return new Fraudster(id, name, age, gender);
+            case 4: return new Arsonist(id, name, age, gender);
+            case 5: return new DrugTrafficker(id, name, age, gender);
+            case 6: return new CyberCriminal(id, name, age, gender);
+            case 7: return new Robber(id, name, age, gender);
+            case 8: return new Kidnapper(id, name, age, gender);
+            case 9: return new MoneyLaunderer(id, name, age, gender);
+            case 10: return new OrganizedCrimeBoss(id, name, age, gender);
+            case 11: return new HumanTrafficker(id, name, age, gender);
+            case 12: return new SexualOffender(id, name, age, gender);
+            case 13: return new Terrorist(id, name, age, gender);
+            default:
+                throw new IOException("Unknown criminal type code: " + typeCode);
+        }
+    }
+
+    /**
+     * Saves from before the type code was stored leave it at 0, and saves
+     * from before coordinates or scene links have no map for them
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.criminalTypeCode = typeCodeOf(criminalType);
+        this.locationIds = internAll(knownLocations);
+        if (locationCoordinates == null) {
+            this.locationCoordinates = new LinkedHashMap<>();
+        }
+        setLinkedScenes(linkedScenes != null ? linkedScenes : new LinkedHashMap<>());
+    }
+
+    /**
+     * Sorted, distinct dictionary IDs for a list of locations
+     */
+    private static int[] internAll(List<String> locations) {
+        int[] ids = new int[locations.size()];
+        int n = 0;
+        for (String location : locations) {
+            int id = LocationDictionary.intern(location);
+            if (id >= 0) {
+                ids[n++] = id;
+            }
+        }
+        Arrays.sort(ids, 0, n);
+
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, distinct);
     }
 
     // ==================== OBJECT METHODS ====================
@@ -0,0 +1,317 @@
+package engine;
+
+import models.*;
+import models.criminals.*;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Criminal Columns
+ * Scene-independent criminal features packed into primitive columns for
+ * batch scoring: dictionary codes for criminal type, weapon preference and
+ * victim type, a risk column, one bitset over criminals per known
+ * location (by LocationDictionary ID), prior crime and boolean trait, and
+ * sparse columns of the criminals whose known locations have coordinates
+ * and of those with linked crimes (for TIME_PATTERN).
+ *
+ * A scene is scored feature by feature over a range of criminals, adding
+ * weights in Feature order so the totals are bit-for-bit the sums that
+ * Suspect computes on the object path.
+ */
+final class CriminalColumns {
+
+    final Criminal[] criminals;
+    final int size;
+
+    // Dictionary-coded columns (criminal type always set, others -1 = none)
+    private final int[] typeCodes;
+    private final List<String> typeNames;
+    private final int[] weaponCodes;
+    private final List<String> weaponNames;
+    private final int[] victimCodes;
+    private final List<String> victimNames;
+    private final double[] riskFactors;
+
+    // Bitsets over criminal positions
+    private final Map<Integer, long[]> locations;
+    private final Map<String, long[]> priorCrimes;
+    private final long[] moOrganized;
+    private final long[] moDisorganized;
+    private final long[] cyber;
+    private final long[] financial;
+    private final long[] extremeDanger;
+
+    // Positions of criminals with located known locations, ascending
+    private final int[] located;
+    private final List<List<GeoPoint>> locatedPoints;
+
+    // Positions of criminals with enough linked crimes for a time pattern, ascending
+    private final int[] active;
+    private final List<ActivityHistogram> activity;
+    private final List<Map<String, LocalDateTime>> linkedScenes;
+
+    /**
+     * Constructor - extracts every column in one pass
+     */
+    CriminalColumns(List<Criminal> source) {
+        this.criminals = source.toArray(new Criminal[0]);
+        this.size = criminals.length;
+
+        int words = (size + 63) >>> 6;
+        this.typeCodes = new int[size];
+        this.typeNames = new ArrayList<>();
+        this.weaponCodes = new int[size];
+        this.weaponNames = new ArrayList<>();
+        this.victimCodes = new int[size];
+        this.victimNames = new ArrayList<>();
+        this.riskFactors = new double[size];
+        this.locations = new HashMap<>();
+        this.priorCrimes = new HashMap<>();
+        this.moOrganized = new long[words];
+        this.moDisorganized = new long[words];
+        this.cyber = new long[words];
+        this.financial = new long[words];
+        this.extremeDanger = new long[words];
+
+        List<Integer> locatedPositions = new ArrayList<>();
+        this.locatedPoints = new ArrayList<>();
+        List<Integer> activePositions = new ArrayList<>();
+        this.activity = new ArrayList<>();
+        this.linkedScenes = new ArrayList<>();
+
+        Map<String, Integer> typeIds = new HashMap<>();
+        Map<String, Integer> weaponIds = new HashMap<>();
+        Map<String, Integer> victimIds = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            Criminal criminal = criminals[i];
+
+            typeCodes[i] = intern(criminal.getCriminalType(), typeIds, typeNames);
+            weaponCodes[i] = intern(ProbabilityEngine.weaponPreference(criminal), weaponIds, weaponNames);
+            victimCodes[i] = intern(criminal instanceof SerialKiller
+                    ? ((SerialKiller) criminal).getVictimType() : null, victimIds, victimNames);
+            riskFactors[i] = criminal.getRiskFactor();
+
+            for (int locationId : criminal.getLocationIds()) {
+                set(locations.computeIfAbsent(locationId, k -> new long[words]), i);
+            }
+            List<GeoPoint> points = criminal.getKnownPointsView();
+            if (!points.isEmpty()) {
+                locatedPositions.add(i);
+                locatedPoints.add(points);
+            }
+            ActivityHistogram histogram = criminal.getActivity();
+            if (histogram.getTotal() >= ProbabilityEngine.TIME_PATTERN_MIN_CRIMES) {
+                activePositions.add(i);
+                activity.add(histogram);
+                linkedScenes.add(criminal.getLinkedScenesView());
+            }
+            for (String crime : criminal.getPriorCrimesView()) {
+                set(priorCrimes.computeIfAbsent(crime.toLowerCase(), k -> new long[words]), i);
+            }
+
+            String mo = criminal.getModusOperandi().toLowerCase();
+            if (mo.contains("organized")) {
+                set(moOrganized, i);
+            }
+            if (mo.contains("disorganized") || mo.contains("impulsive")) {
+                set(moDisorganized, i);
+            }
+            if (criminal instanceof CyberCriminal) {
+                set(cyber, i);
+            }
+            if (criminal instanceof Fraudster || criminal instanceof MoneyLaunderer) {
+                set(financial, i);
+            }
+            if (criminal.getDangerLevel().equals("EXTREME")) {
+                set(extremeDanger, i);
+            }
+        }
+
+        this.located = toArray(locatedPositions);
+        this.active = toArray(activePositions);
+    }
+
+    /**
+     * Score criminals [from, to) against a scene into scores[0, to - from).
+     * Features are applied in Feature order, matching Suspect's summation.
+     */
+    void score(SceneProfile p, double[] w, int from, int to, double[] scores) {
+        Arrays.fill(scores, 0, to - from, 0.0);
+
+        // CRIME_TYPE_MATCH: per-type weight table
+        double[] typeWeights = new double[typeNames.size()];
+        for (int t = 0; t < typeWeights.length; t++) {
+            String type = typeNames.get(t);
+            if (ProbabilityEngine.typeMatches(p, Criminal.typeCodeOf(type), type)) {
+                typeWeights[t] = w[Feature.CRIME_TYPE_MATCH.ordinal()];
+            }
+        }
+        addCoded(typeCodes, typeWeights, from, to, scores);
+
+        // MO_SIMILARITY
+        if (p.organized) {
+            addBits(moOrganized, w[Feature.MO_SIMILARITY.ordinal()], from, to, scores);
+        } else if (p.disorganized) {
+            addBits(moDisorganized, w[Feature.MO_SIMILARITY.ordinal()], from, to, scores);
+        }
+
+        // LOCATION_PROXIMITY: same-name locations, then distance decay for the rest
+        long[] sameName = locations.get(p.locationId);
+        double locationWeight = w[Feature.LOCATION_PROXIMITY.ordinal()];
+        addBits(sameName, locationWeight, from, to, scores);
+        if (p.coordinates != null) {
+            int k = Arrays.binarySearch(located, from);
+            for (k = k < 0 ? -k - 1 : k; k < located.length && located[k] < to; k++) {
+                int i = located[k];
+                if (sameName == null || (sameName[i >>> 6] & (1L << i)) == 0) {
+                    double near = ProbabilityEngine.proximity(
+                            ProbabilityEngine.nearestKm(p.coordinates, locatedPoints.get(k)));
+                    if (near > 0) {
+                        scores[i - from] += locationWeight * near;
+                    }
+                }
+            }
+        }
+
+        // WEAPON_MATCH: per-preference weight table
+        if (p.hasEvidence(SceneProfile.WEAPON)) {
+            double[] weaponWeights = new double[weaponNames.size()];
+            for (int k = 0; k < weaponWeights.length; k++) {
+                if (p.weaponMatchesIgnoreCase(weaponNames.get(k))) {
+                    weaponWeights[k] = w[Feature.WEAPON_MATCH.ordinal()];
+                }
+            }
+            addCoded(weaponCodes, weaponWeights, from, to, scores);
+        }
+
+        // DIGITAL_EVIDENCE
+        if (p.hasEvidence(SceneProfile.DIGITAL)) {
+            addBits(cyber, w[Feature.DIGITAL_EVIDENCE.ordinal()], from, to, scores);
+        }
+
+        // WITNESS_TESTIMONY and SURVEILLANCE_FOOTAGE apply to everyone
+        if (p.hasEvidence(SceneProfile.WITNESS)) {
+            addAll(w[Feature.WITNESS_TESTIMONY.ordinal()] * ProbabilityEngine.WITNESS_MULTIPLIER,
+                    to - from, scores);
+        }
+        if (p.hasEvidence(SceneProfile.SURVEILLANCE)) {
+            addAll(w[Feature.SURVEILLANCE_FOOTAGE.ordinal()] * ProbabilityEngine.SURVEILLANCE_MULTIPLIER,
+                    to - from, scores);
+        }
+
+        // FINANCIAL_RECORDS
+        if (p.hasEvidence(SceneProfile.FINANCIAL)) {
+            addBits(financial, w[Feature.FINANCIAL_RECORDS.ordinal()], from, to, scores);
+        }
+
+        // PRIOR_CRIMES
+        addBits(priorCrimes.get(p.crimeTypeLower), w[Feature.PRIOR_CRIMES.ordinal()], from, to, scores);
+
+        // VICTIM_PROFILE_MATCH: per-victim-type weight table
+        if (p.victimProfile != null) {
+            double[] victimWeights = new double[victimNames.size()];
+            for (int k = 0; k < victimWeights.length; k++) {
+                if (p.victimMatches(victimNames.get(k))) {
+                    victimWeights[k] = w[Feature.VICTIM_PROFILE_MATCH.ordinal()];
+                }
+            }
+            addCoded(victimCodes, victimWeights, from, to, scores);
+        }
+
+        // TIME_PATTERN: histogram lookups for criminals with linked crimes
+        if (p.hourOfCrime >= 0) {
+            double timeWeight = w[Feature.TIME_PATTERN.ordinal()];
+            int k = Arrays.binarySearch(active, from);
+            for (k = k < 0 ? -k - 1 : k; k < active.length && active[k] < to; k++) {
+                double timeMatch = ProbabilityEngine.timePattern(p, activity.get(k), linkedScenes.get(k));
+                if (timeMatch > 0) {
+                    scores[active[k] - from] += timeWeight * timeMatch;
+                }
+            }
+        }
+
+        // RISK_FACTOR
+        double riskWeight = w[Feature.RISK_FACTOR.ordinal()];
+        for (int i = from; i < to; i++) {
+            double risk = riskFactors[i];
+            if (risk > 0.7) {
+                scores[i - from] += riskWeight * risk;
+            }
+        }
+
+        // DANGER_LEVEL
+        addBits(extremeDanger, w[Feature.DANGER_LEVEL.ordinal()], from, to, scores);
+    }
+
+    // ==================== COLUMN KERNELS ====================
+
+    /**
+     * Add a per-code weight; code -1 (no value) adds nothing
+     */
+    private static void addCoded(int[] codes, double[] weights, int from, int to, double[] scores) {
+        for (int i = from; i < to; i++) {
+            int code = codes[i];
+            if (code >= 0 && weights[code] != 0.0) {
+                scores[i - from] += weights[code];
+            }
+        }
+    }
+
+    /**
+     * Add a weight to every criminal in the range
+     */
+    private static void addAll(double weight, int count, double[] scores) {
+        for (int i = 0; i < count; i++) {
+            scores[i] += weight;
+        }
+    }
+
+    /**
+     * Add a weight to the criminals whose bit is set, visiting set bits only
+     */
+    private static void addBits(long[] bits, double weight, int from, int to, double[] scores) {
+        if (bits == null || from >= to) {
+            return;
+        }
+
+        int last = (to - 1) >>> 6;
+        for (int word = from >>> 6; word <= last; word++) {
+            long value = bits[word];
+            if (word == from >>> 6) {
+                value &= -1L << from;
+            }
+            if (word == last) {
+                value &= -1L >>> (63 - ((to - 1) & 63));
+            }
+
+            while (value != 0) {
+                int i = (word << 6) + Long.numberOfTrailingZeros(value);
+                scores[i - from] += weight;
+                value &= value - 1;
+            }
+        }
+    }
+
+    private static void set(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    private static int[] toArray(List<Integer> positions) {
+        int[] array = new int[positions.size()];
+        for (int k = 0; k < array.length; k++) {
+            array[k] = positions.get(k);
+        }
+        return array;
+    }
+
+    private static int intern(String value, Map<String, Integer> ids, List<String> names) {
+        if (value == null) {
+            return -1;
+        }
+        return ids.computeIfAbsent(value, k -> {
+            names.add(k);
+            return names.size() - 1;
+        });
+    }
+}
@@ -2,24 +2,321 @@ package database;
 
 import models.*;
 import models.criminals.Criminal;
+import reports.ReportExporter;
+import utils.IdAllocator;
+import utils.Utils;
 import java.io.*;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
 
 /**
  * Criminal Database
  * Main storage and management system for criminals and crime scenes.
+ *
+ * Safe for concurrent use. Criminals and scenes live in versioned
+ * copy-on-write stores: writers lock only the stripe of the ID they
+ * change, and lookups and listings never lock. getAllCriminals() and
+ * getAllCrimeScenes() return immutable snapshots that later changes do
+ * not affect, so a long analysis can run while records are being added.
  */
 public class CriminalDatabase implements Serializable {
 
-    private Map<String, Criminal> criminals;
-    private Map<String, CrimeScene> crimeScenes;
+    private static final long serialVersionUID = 1919099774702791299L;
+
+    // Saved as two plain maps, the same form as earlier saves
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("criminals", Map.class),
+            new ObjectStreamField("crimeScenes", Map.class)
+    };
+
+    private transient VersionedStore<Criminal> criminals;
+    private transient VersionedStore<CrimeScene> crimeScenes;
+
+    // Secondary indexes (rebuilt when missing), guarded by indexLock
+    private transient CriminalIndex index;
+    private transient ReadWriteLock indexLock;
+    private transient int indexSuspensions;
+
+    // Write-ahead log, if the database is being journaled
+    private transient volatile DatabaseJournal journal;
+
+    // Mapped snapshot whose criminals are not all in the store yet, and
+    // the criminals decoded from it so far
+    private transient volatile ColumnarSnapshot snapshot;
+    private transient volatile Map<String, Criminal> decoded;
+
+    // Keeps the time index and scene links current when a stored scene's
+    // time of crime is edited
+    private transient SceneTimeWatcher sceneWatcher;
 
     /**
      * Constructor
      */
     public CriminalDatabase() {
-        this.criminals = new HashMap<>();
-        this.crimeScenes = new HashMap<>();
+        init();
+        this.index = new CriminalIndex();
+    }
+
+    private void init() {
+        this.criminals = new VersionedStore<>(Criminal.class, Criminal::getId);
+        this.crimeScenes = new VersionedStore<>(CrimeScene.class, CrimeScene::getSceneId);
+        this.indexLock = new ReentrantReadWriteLock();
+        this.sceneWatcher = new SceneTimeWatcher();
+    }
+
+    // ==================== INDEXES ====================
+
+    /**
+     * Get indexes, rebuilding them from the stores if missing
+     * (caller holds the index write lock)
+     */
+    private CriminalIndex index() {
+        if (index == null) {
+            CriminalIndex rebuilt = new CriminalIndex();
+            criminals.snapshot().forEach(rebuilt::addCriminal);
+            crimeScenes.snapshot().forEach(rebuilt::addCrimeScene);
+            index = rebuilt;
+        }
+        return index;
+    }
+
+    /**
+     * Run a query against the indexes, building them first if missing
+     */
+    private <T> T queryIndex(Function<CriminalIndex, T> query) {
+        indexLock.readLock().lock();
+        try {
+            if (index != null) {
+                return query.apply(index);
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+
+        indexLock.writeLock().lock();
+        try {
+            return query.apply(index());
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a change to the indexes. Missing indexes are left alone: the
+     * next query rebuilds them from the stores, which already hold it.
+     * While index maintenance is suspended the indexes are dropped instead.
+     */
+    private void updateIndex(Consumer<CriminalIndex> change) {
+        indexLock.writeLock().lock();
+        try {
+            if (indexSuspensions > 0) {
+                index = null;
+            } else if (index != null) {
+                change.accept(index);
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stop maintaining the indexes until resumeIndexes(), for bulk loads.
+     * Queries in between still work; they rebuild the indexes on demand.
+     */
+    void suspendIndexes() {
+        indexLock.writeLock().lock();
+        try {
+            indexSuspensions++;
+            index = null;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resume index maintenance, rebuilding the indexes once when the last
+     * suspension ends
+     */
+    void resumeIndexes() {
+        indexLock.writeLock().lock();
+        try {
+            if (indexSuspensions == 0) {
+                throw new IllegalStateException("Index maintenance is not suspended");
+            }
+            if (--indexSuspensions == 0) {
+                index();
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private void dropIndex() {
+        indexLock.writeLock().lock();
+        try {
+            index = null;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    // ==================== SNAPSHOTS ====================
+
+    /**
+     * Open a columnar snapshot without decoding its criminals up front.
+     * Lookups by ID and scans over the snapshot columns only decode the
+     * criminals they return; the first change or full listing loads the rest.
+     */
+    public static CriminalDatabase openSnapshot(File file) throws IOException {
+        CriminalDatabase database = new CriminalDatabase();
+        database.attachSnapshot(ColumnarSnapshot.open(file));
+        return database;
+    }
+
+    /**
+     * Serve criminals from a mapped snapshot (database must be empty)
+     */
+    synchronized void attachSnapshot(ColumnarSnapshot snapshot) throws IOException {
+        if (criminals.size() > 0 || crimeScenes.size() > 0 || this.snapshot != null) {
+            throw new IllegalStateException("Snapshot can only be attached to an empty database");
+        }
+
+        for (CrimeScene scene : snapshot.readCrimeScenes()) {
+            addCrimeScene(scene);
+        }
+        IdAllocator ids = Utils.getIdAllocator();
+        for (int i = 0; i < snapshot.size(); i++) {
+            ids.observeCriminalId(snapshot.getId(i));
+        }
+        this.decoded = new ConcurrentHashMap<>();
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Move every criminal still in the snapshot into the store and index
+     */
+    private void materialize() {
+        if (snapshot == null) {
+            return;
+        }
+
+        synchronized (this) {
+            ColumnarSnapshot source = snapshot;
+            if (source == null) {
+                return;
+            }
+
+            Map<String, Criminal> loaded = new LinkedHashMap<>();
+            for (int i = 0; i < source.size(); i++) {
+                Criminal criminal = decode(source, decoded, i);
+                loaded.put(criminal.getId(), criminal);
+            }
+            criminals.withAllLocks(() -> criminals.putAll(loaded));
+            updateIndex(index -> loaded.values().forEach(index::addCriminal));
+
+            // Readers switch to the store only once it is complete
+            snapshot = null;
+            decoded = null;
+        }
+    }
+
+    /**
+     * Criminal at a snapshot ordinal, decoding it on first use
+     */
+    private static Criminal decode(ColumnarSnapshot source, Map<String, Criminal> cache, int ordinal) {
+        String id = source.getId(ordinal);
+        Criminal criminal = cache != null ? cache.get(id) : null;
+        if (criminal == null) {
+            try {
+                criminal = source.readCriminal(ordinal);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read criminal " + id, e);
+            }
+            if (cache != null) {
+                Criminal raced = cache.putIfAbsent(id, criminal);
+                if (raced != null) {
+                    criminal = raced;
+                }
+            }
+        }
+        return criminal;
+    }
+
+    /**
+     * Scan the snapshot columns, decoding only matching criminals
+     */
+    private List<Criminal> scanSnapshot(ColumnarSnapshot source, IntPredicate matches) {
+        Map<String, Criminal> cache = decoded;
+        List<Criminal> results = new ArrayList<>();
+        for (int i = 0; i < source.size(); i++) {
+            if (matches.test(i)) {
+                results.add(decode(source, cache, i));
+            }
+        }
+        return results;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        materialize();
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("criminals", toMap(criminals.snapshot(), Criminal::getId));
+        fields.put("crimeScenes", toMap(crimeScenes.snapshot(), CrimeScene::getSceneId));
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        init();
+
+        Map<String, Criminal> savedCriminals = (Map<String, Criminal>) fields.get("criminals", null);
+        Map<String, CrimeScene> savedScenes = (Map<String, CrimeScene>) fields.get("crimeScenes", null);
+        if (savedCriminals != null) {
+            criminals.withAllLocks(() -> criminals.putAll(savedCriminals));
+        }
+        if (savedScenes != null) {
+            crimeScenes.withAllLocks(() -> crimeScenes.putAll(savedScenes));
+            for (CrimeScene scene : savedScenes.values()) {
+                scene.addListener(sceneWatcher);
+            }
+        }
+    }
+
+    private static <V> Map<String, V> toMap(List<V> values, Function<V, String> key) {
+        Map<String, V> map = new HashMap<>();
+        for (V value : values) {
+            map.put(key.apply(value), value);
+        }
+        return map;
+    }
+
+    /**
+     * Get the journal recording changes, or null
+     */
+    public DatabaseJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Attach or detach the journal (stored scenes report their edits to it)
+     */
+    void setJournal(DatabaseJournal journal) {
+        for (CrimeScene scene : crimeScenes.snapshot()) {
+            if (this.journal != null) {
+                scene.removeListener(this.journal);
+            }
+            if (journal != null) {
+                scene.addListener(journal);
+            }
+        }
+        this.journal = journal;
     }
 
     // ==================== CRIMINAL MANAGEMENT ====================
@@ -31,12 +328,71 @@ public class CriminalDatabase implements Serializable {
         if (criminal == null) {
             throw new IllegalArgumentException("Criminal cannot be null");
         }
+        materialize();
 
-        if (criminals.containsKey(criminal.getId())) {
-            throw new IllegalArgumentException("Criminal with ID " + criminal.getId() + " already exists");
+        String id = criminal.getId();
+        criminals.withLock(id, () -> {
+            if (criminals.containsKey(id)) {
+                throw new IllegalArgumentException("Criminal with ID " + id + " already exists");
+            }
+
+            criminals.put(id, criminal);
+            updateIndex(index -> index.addCriminal(criminal));
+            Utils.getIdAllocator().observeCriminalId(id);
+
+            DatabaseJournal log = journal;
+            if (log != null) {
+                log.criminalPut(criminal);
+            }
+        });
+    }
+
+    /**
+     * Add many criminals at once. The whole batch is checked for duplicate
+     * IDs before anything is stored, and readers see all of it or none.
+     * Large batches drop the indexes and let the next query rebuild them
+     * in one pass instead of updating them per criminal.
+     */
+    public void addCriminals(Collection<Criminal> batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        materialize();
+
+        Map<String, Criminal> entries = new LinkedHashMap<>();
+        for (Criminal criminal : batch) {
+            if (criminal == null) {
+                throw new IllegalArgumentException("Criminal cannot be null");
+            }
+            if (entries.put(criminal.getId(), criminal) != null) {
+                throw new IllegalArgumentException("Criminal with ID " + criminal.getId() + " already exists");
+            }
         }
 
-        criminals.put(criminal.getId(), criminal);
+        criminals.withLocks(entries.keySet(), () -> {
+            for (String id : entries.keySet()) {
+                if (criminals.containsKey(id)) {
+                    throw new IllegalArgumentException("Criminal with ID " + id + " already exists");
+                }
+            }
+
+            boolean rebuild = entries.size() * 4 >= criminals.size();
+            criminals.putAll(entries);
+            if (rebuild) {
+                dropIndex();
+            } else {
+                updateIndex(index -> entries.values().forEach(index::addCriminal));
+            }
+
+            IdAllocator ids = Utils.getIdAllocator();
+            DatabaseJournal log = journal;
+            for (Criminal criminal : entries.values()) {
+                ids.observeCriminalId(criminal.getId());
+                if (log != null) {
+                    log.criminalPut(criminal);
+                }
+            }
+        });
     }
 
     /**
@@ -46,55 +402,90 @@ public class CriminalDatabase implements Serializable {
         if (criminalId == null || criminalId.trim().isEmpty()) {
             throw new IllegalArgumentException("Criminal ID cannot be empty");
         }
+        materialize();
 
-        if (!criminals.containsKey(criminalId)) {
-            throw new IllegalArgumentException("Criminal not found: " + criminalId);
-        }
+        criminals.withLock(criminalId, () -> {
+            if (criminals.remove(criminalId) == null) {
+                throw new IllegalArgumentException("Criminal not found: " + criminalId);
+            }
 
-        criminals.remove(criminalId);
+            updateIndex(index -> index.removeCriminal(criminalId));
+
+            DatabaseJournal log = journal;
+            if (log != null) {
+                log.criminalRemoved(criminalId);
+            }
+        });
     }
 
     /**
      * Get criminal by ID
      */
     public Criminal getCriminal(String criminalId) {
-        return criminals.get(criminalId);
+        Criminal criminal = criminals.get(criminalId);
+        ColumnarSnapshot source = snapshot;
+        if (criminal == null && source != null && criminalId != null) {
+            int ordinal = source.indexOf(criminalId);
+            if (ordinal >= 0) {
+                criminal = decode(source, decoded, ordinal);
+            }
+        }
+        return criminal;
     }
 
     /**
      * Get all criminals
+     * Returns an immutable snapshot; later changes do not show up in it.
+     * indexOf and contains on it are hash lookups.
      */
     public List<Criminal> getAllCriminals() {
-        return new ArrayList<>(criminals.values());
+        materialize();
+        return criminals.snapshot();
     }
 
     /**
      * Get criminal count
      */
     public int getCriminalCount() {
-        return criminals.size();
+        ColumnarSnapshot source = snapshot;
+        return source != null ? source.size() : criminals.size();
     }
 
     /**
      * Check if criminal exists
      */
     public boolean hasCriminal(String criminalId) {
-        return criminals.containsKey(criminalId);
+        if (criminals.containsKey(criminalId)) {
+            return true;
+        }
+        ColumnarSnapshot source = snapshot;
+        return source != null && criminalId != null && source.indexOf(criminalId) >= 0;
     }
 
     /**
      * Update criminal
+     * Call after editing a stored criminal so the indexes see the change.
      */
     public void updateCriminal(Criminal criminal) {
         if (criminal == null) {
             throw new IllegalArgumentException("Criminal cannot be null");
         }
+        materialize();
 
-        if (!criminals.containsKey(criminal.getId())) {
-            throw new IllegalArgumentException("Criminal not found: " + criminal.getId());
-        }
+        String id = criminal.getId();
+        criminals.withLock(id, () -> {
+            if (!criminals.containsKey(id)) {
+                throw new IllegalArgumentException("Criminal not found: " + id);
+            }
+
+            criminals.put(id, criminal);
+            updateIndex(index -> index.updateCriminal(criminal));
 
-        criminals.put(criminal.getId(), criminal);
+            DatabaseJournal log = journal;
+            if (log != null) {
+                log.criminalPut(criminal);
+            }
+        });
     }
 
     // ==================== CRIME SCENE MANAGEMENT ====================
@@ -107,11 +498,29 @@ public class CriminalDatabase implements Serializable {
             throw new IllegalArgumentException("Crime scene cannot be null");
         }
 
-        if (crimeScenes.containsKey(scene.getSceneId())) {
-            throw new IllegalArgumentException("Crime scene with ID " + scene.getSceneId() + " already exists");
-        }
+        String id = scene.getSceneId();
+        crimeScenes.withLock(id, () -> {
+            if (crimeScenes.containsKey(id)) {
+                throw new IllegalArgumentException("Crime scene with ID " + id + " already exists");
+            }
 
-        crimeScenes.put(scene.getSceneId(), scene);
+            crimeScenes.put(id, scene);
+            updateIndex(index -> index.addCrimeScene(scene));
+            scene.addListener(sceneWatcher);
+
+            // Keep generated IDs clear of the ones this scene already uses
+            IdAllocator ids = Utils.getIdAllocator();
+            ids.observeSceneId(id);
+            for (Evidence evidence : scene.getEvidenceView()) {
+                ids.observeEvidenceId(id, evidence.getEvidenceId());
+            }
+
+            DatabaseJournal log = journal;
+            if (log != null) {
+                log.scenePut(scene);
+                scene.addListener(log);
+            }
+        });
     }
 
     /**
@@ -122,11 +531,24 @@ public class CriminalDatabase implements Serializable {
             throw new IllegalArgumentException("Scene ID cannot be empty");
         }
 
-        if (!crimeScenes.containsKey(sceneId)) {
-            throw new IllegalArgumentException("Crime scene not found: " + sceneId);
-        }
+        crimeScenes.withLock(sceneId, () -> {
+            CrimeScene scene = crimeScenes.remove(sceneId);
+            if (scene == null) {
+                throw new IllegalArgumentException("Crime scene not found: " + sceneId);
+            }
+
+            updateIndex(index -> index.removeCrimeScene(scene));
+            scene.removeListener(sceneWatcher);
 
-        crimeScenes.remove(sceneId);
+            // Adding the scene again observes its evidence IDs again
+            Utils.getIdAllocator().resetEvidenceSequence(sceneId);
+
+            DatabaseJournal log = journal;
+            if (log != null) {
+                scene.removeListener(log);
+                log.sceneRemoved(sceneId);
+            }
+        });
     }
 
     /**
@@ -138,9 +560,10 @@ public class CriminalDatabase implements Serializable {
 
     /**
      * Get all crime scenes
+     * Returns an immutable snapshot; later changes do not show up in it.
      */
     public List<CrimeScene> getAllCrimeScenes() {
-        return new ArrayList<>(crimeScenes.values());
+        return crimeScenes.snapshot();
     }
 
     /**
@@ -157,70 +580,251 @@ public class CriminalDatabase implements Serializable {
         return crimeScenes.containsKey(sceneId);
     }
 
-    // ==================== SEARCH OPERATIONS ====================
+    // ==================== SCENE LINKS ====================
 
     /**
-     * Search criminals by name
+     * Link a criminal to a crime scene they are tied to. The scene's time
+     * of crime goes into the criminal's activity histogram, which scores
+     * TIME_PATTERN. Links stay if the scene is later removed.
      */
-    public List<Criminal> searchByName(String name) {
-        List<Criminal> results = new ArrayList<>();
-        String searchTerm = name.toLowerCase();
+    public void linkCriminalToScene(String criminalId, String sceneId) {
+        Criminal criminal = requireCriminal(criminalId);
+        CrimeScene scene = getCrimeScene(sceneId);
+        if (scene == null) {
+            throw new IllegalArgumentException("Crime scene not found: " + sceneId);
+        }
 
-        for (Criminal criminal : criminals.values()) {
-            if (criminal.getName().toLowerCase().contains(searchTerm)) {
-                results.add(criminal);
+        criminals.withLock(criminal.getId(), () -> {
+            if (criminal.linkScene(scene)) {
+                updateCriminal(criminal);
             }
+        });
+    }
+
+    /**
+     * Remove a criminal's link to a crime scene
+     */
+    public void unlinkCriminalFromScene(String criminalId, String sceneId) {
+        Criminal criminal = requireCriminal(criminalId);
+        criminals.withLock(criminal.getId(), () -> {
+            if (criminal.unlinkScene(sceneId)) {
+                updateCriminal(criminal);
+            }
+        });
+    }
+
+    /**
+     * Get the criminals linked to a crime scene
+     */
+    public List<Criminal> getCriminalsLinkedTo(String sceneId) {
+        materialize();
+        return queryIndex(index -> index.getLinkedTo(sceneId));
+    }
+
+    private Criminal requireCriminal(String criminalId) {
+        if (criminalId == null || criminalId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Criminal ID cannot be empty");
         }
+        Criminal criminal = getCriminal(criminalId);
+        if (criminal == null) {
+            throw new IllegalArgumentException("Criminal not found: " + criminalId);
+        }
+        return criminal;
+    }
 
-        return results;
+    /**
+     * Scene listener that re-indexes a stored scene's time of crime and
+     * moves it in the activity histograms of the criminals linked to it
+     */
+    private class SceneTimeWatcher implements CrimeSceneListener {
+
+        @Override
+        public void timeOfCrimeChanged(CrimeScene scene) {
+            updateIndex(index -> index.updateSceneTime(scene));
+            for (Criminal criminal : getCriminalsLinkedTo(scene.getSceneId())) {
+                criminals.withLock(criminal.getId(), () -> {
+                    if (criminal.linkScene(scene)) {
+                        updateCriminal(criminal);
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void evidenceChanged(CrimeScene scene, Evidence evidence, boolean added) {
+        }
+
+        @Override
+        public void characteristicChanged(CrimeScene scene, String key) {
+        }
+
+        @Override
+        public void victimProfileChanged(CrimeScene scene) {
+        }
+
+        @Override
+        public void coordinatesChanged(CrimeScene scene) {
+        }
+    }
+
+    // ==================== SEARCH OPERATIONS ====================
+
+    /**
+     * Search criminals by name
+     */
+    public List<Criminal> searchByName(String name) {
+        materialize();
+        return queryIndex(index -> index.searchByName(name));
     }
 
     /**
      * Search criminals by type
      */
     public List<Criminal> searchByType(String type) {
-        List<Criminal> results = new ArrayList<>();
-        String searchType = type.toLowerCase();
+        materialize();
+        return queryIndex(index -> index.searchByType(type));
+    }
 
-        for (Criminal criminal : criminals.values()) {
-            if (criminal.getCriminalType().toLowerCase().contains(searchType)) {
-                results.add(criminal);
-            }
+    /**
+     * Get criminals of an exact criminal type (case-insensitive)
+     */
+    public List<Criminal> getCriminalsByType(String type) {
+        ColumnarSnapshot source = snapshot;
+        if (source != null) {
+            int code = Criminal.typeCodeOf(type);
+            return scanSnapshot(source, i -> source.getTypeCode(i) == code);
         }
+        return queryIndex(index -> index.getByExactType(type));
+    }
 
-        return results;
+    /**
+     * Search criminals whose modus operandi contains a term
+     */
+    public List<Criminal> searchByModusOperandi(String term) {
+        materialize();
+        return queryIndex(index -> index.searchByModusOperandi(term));
     }
 
     /**
-     * Search crime scenes by type
+     * Get criminals with a prior crime of the given type (case-insensitive)
      */
-    public List<CrimeScene> searchScenesByType(String crimeType) {
-        List<CrimeScene> results = new ArrayList<>();
-        String searchType = crimeType.toLowerCase();
+    public List<Criminal> searchByPriorCrime(String crimeType) {
+        materialize();
+        return queryIndex(index -> index.getByPriorCrime(crimeType));
+    }
 
-        for (CrimeScene scene : crimeScenes.values()) {
-            if (scene.getCrimeType().toLowerCase().contains(searchType)) {
-                results.add(scene);
-            }
+    /**
+     * Get criminals whose risk factor is strictly above a threshold
+     */
+    public List<Criminal> searchByRiskAbove(double threshold) {
+        ColumnarSnapshot source = snapshot;
+        if (source != null) {
+            return scanSnapshot(source, i -> source.getRiskFactor(i) > threshold);
         }
+        return queryIndex(index -> index.getByRiskAbove(threshold));
+    }
 
-        return results;
+    /**
+     * Get criminals known to operate in a location (case-insensitive)
+     */
+    public List<Criminal> searchByLocation(String location) {
+        ColumnarSnapshot source = snapshot;
+        if (source != null) {
+            int locationId = source.locationId(location);
+            return locationId < 0 ? new ArrayList<>() : scanSnapshot(source, i -> source.operatesIn(i, locationId));
+        }
+        return queryIndex(index -> index.getByLocation(location));
+    }
+
+    /**
+     * Get criminals with a known location within a distance of a point
+     */
+    public List<Criminal> searchNear(GeoPoint center, double radiusKm) {
+        if (center == null) {
+            throw new IllegalArgumentException("Center cannot be null");
+        }
+        if (!(radiusKm >= 0)) {
+            throw new IllegalArgumentException("Radius cannot be negative");
+        }
+        materialize();
+        return queryIndex(index -> index.getNear(center, radiusKm));
+    }
+
+    /**
+     * Get criminals with a linked crime committed in an hour of day (0-23)
+     */
+    public List<Criminal> searchByActiveHour(int hour) {
+        if (hour < 0 || hour >= ActivityHistogram.HOURS) {
+            throw new IllegalArgumentException("Hour must be between 0 and 23: " + hour);
+        }
+        materialize();
+        return queryIndex(index -> index.getByActiveHour(hour));
+    }
+
+    /**
+     * Get criminals with a linked crime committed on a day of week
+     */
+    public List<Criminal> searchByActiveDay(DayOfWeek day) {
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+        materialize();
+        return queryIndex(index -> index.getByActiveDay(day.getValue() - 1));
+    }
+
+    /**
+     * Get criminals with a given danger level
+     */
+    public List<Criminal> searchByDangerLevel(String dangerLevel) {
+        ColumnarSnapshot source = snapshot;
+        if (source != null && isStandardDangerLevel(dangerLevel)) {
+            return scanSnapshot(source, i -> dangerLevel.equals(source.getDangerLevel(i)));
+        }
+        materialize();
+        return queryIndex(index -> index.getByDangerLevel(dangerLevel));
+    }
+
+    /**
+     * Get criminals currently at large
+     */
+    public List<Criminal> getCriminalsAtLarge() {
+        ColumnarSnapshot source = snapshot;
+        if (source != null) {
+            return scanSnapshot(source, source::isAtLarge);
+        }
+        return queryIndex(CriminalIndex::getAtLarge);
+    }
+
+    private static boolean isStandardDangerLevel(String level) {
+        return "LOW".equals(level) || "MEDIUM".equals(level)
+                || "HIGH".equals(level) || "EXTREME".equals(level);
+    }
+
+    /**
+     * Search crime scenes by type
+     */
+    public List<CrimeScene> searchScenesByType(String crimeType) {
+        return queryIndex(index -> index.searchScenesByType(crimeType));
     }
 
     /**
      * Search crime scenes by location
      */
     public List<CrimeScene> searchScenesByLocation(String location) {
-        List<CrimeScene> results = new ArrayList<>();
-        String searchLocation = location.toLowerCase();
+        return queryIndex(index -> index.searchScenesByLocation(location));
+    }
 
-        for (CrimeScene scene : crimeScenes.values()) {
-            if (scene.getLocation().toLowerCase().contains(searchLocation)) {
-                results.add(scene);
-            }
+    /**
+     * Get crime scenes whose time of crime is in [from, to], earliest first
+     */
+    public List<CrimeScene> searchScenesBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Time range cannot be null");
         }
-
-        return results;
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start is after its end");
+        }
+        return queryIndex(index -> index.getScenesBetween(from, to));
     }
 
     // ==================== STATISTICS ====================
@@ -237,16 +841,18 @@ public class CriminalDatabase implements Serializable {
      * Get detailed statistics report
      */
     public String getStatisticsReport() {
+        List<Criminal> allCriminals = getAllCriminals();
+        List<CrimeScene> allScenes = getAllCrimeScenes();
         StringBuilder report = new StringBuilder();
 
         report.append("=== DATABASE STATISTICS ===\n\n");
         report.append("OVERVIEW:\n");
-        report.append(String.format("  Total Criminals: %d\n", getCriminalCount()));
-        report.append(String.format("  Total Crime Scenes: %d\n", getSceneCount()));
+        report.append(String.format("  Total Criminals: %d\n", allCriminals.size()));
+        report.append(String.format("  Total Crime Scenes: %d\n", allScenes.size()));
 
         // Criminal type breakdown
         Map<String, Integer> typeCount = new HashMap<>();
-        for (Criminal criminal : criminals.values()) {
+        for (Criminal criminal : allCriminals) {
             String type = criminal.getCriminalType();
             typeCount.put(type, typeCount.getOrDefault(type, 0) + 1);
         }
@@ -258,7 +864,7 @@ public class CriminalDatabase implements Serializable {
 
         // Crime type breakdown
         Map<String, Integer> crimeCount = new HashMap<>();
-        for (CrimeScene scene : crimeScenes.values()) {
+        for (CrimeScene scene : allScenes) {
             String type = scene.getCrimeType();
             crimeCount.put(type, crimeCount.getOrDefault(type, 0) + 1);
         }
@@ -270,7 +876,7 @@ public class CriminalDatabase implements Serializable {
 
         // Danger levels
         int extreme = 0, high = 0, medium = 0, low = 0;
-        for (Criminal criminal : criminals.values()) {
+        for (Criminal criminal : allCriminals) {
             switch (criminal.getDangerLevel()) {
                 case "EXTREME": extreme++; break;
                 case "HIGH": high++; break;
@@ -287,7 +893,7 @@ public class CriminalDatabase implements Serializable {
 
         // Status
         int atLarge = 0, captured = 0;
-        for (Criminal criminal : criminals.values()) {
+        for (Criminal criminal : allCriminals) {
             if (criminal.isAtLarge()) {
                 atLarge++;
             } else {
@@ -306,33 +912,78 @@ public class CriminalDatabase implements Serializable {
      * Export criminals to CSV
      */
     public void exportCriminalsToCSV(String filename) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            // Header
-            writer.println("ID,Name,Age,Gender,Type,Danger Level,Status,MO");
+        exportCriminalsToCSV(filename, false);
+    }
 
-            // Data
-            for (Criminal criminal : criminals.values()) {
-                writer.printf("%s,%s,%d,%s,%s,%s,%s,\"%s\"%n",
-                        criminal.getId(),
-                        criminal.getName(),
-                        criminal.getAge(),
-                        criminal.getGender(),
-                        criminal.getCriminalType(),
-                        criminal.getDangerLevel(),
-                        criminal.isAtLarge() ? "At Large" : "Captured",
-                        criminal.getModusOperandi().replace("\"", "\"\"")
-                );
-            }
+    /**
+     * Stream criminals to CSV, optionally gzip-compressed
+     */
+    public void exportCriminalsToCSV(String filename, boolean gzip) throws IOException {
+        ReportExporter.exportCriminalsToCSV(criminalIterator(), filename, gzip);
+    }
 
-            System.out.println(" Criminals exported to " + filename);
+    /**
+     * Iterate over all criminals without copying them into a list.
+     * Criminals still in a mapped snapshot are decoded one at a time and
+     * not cached, so a full pass does not load the whole snapshot.
+     */
+    public Iterator<Criminal> criminalIterator() {
+        ColumnarSnapshot source = snapshot;
+        Map<String, Criminal> cache = decoded;
+        if (source == null) {
+            return criminals.snapshot().iterator();
         }
+
+        return new Iterator<Criminal>() {
+            private int ordinal;
+
+            @Override
+            public boolean hasNext() {
+                return ordinal < source.size();
+            }
+
+            @Override
+            public Criminal next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int current = ordinal++;
+                Criminal criminal = cache != null ? cache.get(source.getId(current)) : null;
+                if (criminal != null) {
+                    return criminal;
+                }
+                try {
+                    return source.readCriminal(current);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read criminal " + source.getId(current), e);
+                }
+            }
+        };
     }
 
     /**
      * Clear all data
      */
-    public void clearAll() {
-        criminals.clear();
-        crimeScenes.clear();
+    public synchronized void clearAll() {
+        criminals.withAllLocks(() -> crimeScenes.withAllLocks(() -> {
+            DatabaseJournal log = journal;
+            if (log != null) {
+                for (CrimeScene scene : crimeScenes.snapshot()) {
+                    scene.removeListener(log);
+                }
+                log.cleared();
+            }
+            IdAllocator ids = Utils.getIdAllocator();
+            for (CrimeScene scene : crimeScenes.snapshot()) {
+                scene.removeListener(sceneWatcher);
+                ids.resetEvidenceSequence(scene.getSceneId());
+            }
+
+            snapshot = null;
+            decoded = null;
+            criminals.clear();
+            crimeScenes.clear();
+            updateIndex(CriminalIndex::clear);
+        }));
     }
 }
@@ -0,0 +1,95 @@
+package engine;
+
+import models.ActivityHistogram;
+import models.GeoPoint;
+import models.criminals.*;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Criminal Features
+ * Scene-independent facts about a criminal, extracted once so that batch
+ * analysis does not re-derive lower-cased types, MO and locations per scene.
+ */
+final class CriminalFeatures {
+
+    final Criminal criminal;
+    final int typeCode;
+    final int[] locationIds;
+    final List<GeoPoint> points;
+    final String[] priorCrimes;
+    final boolean moOrganized;
+    final boolean moDisorganized;
+    final String weaponPreference;
+    final String victimType;
+    final boolean cyber;
+    final boolean financial;
+    final boolean extremeDanger;
+    final double riskFactor;
+    final ActivityHistogram activity;
+    final Map<String, LocalDateTime> linkedScenes;
+
+    /**
+     * Constructor
+     */
+    CriminalFeatures(Criminal criminal) {
+        this.criminal = criminal;
+        this.typeCode = criminal.getCriminalTypeCode();
+        this.locationIds = criminal.getLocationIds();
+        this.points = criminal.getKnownPointsView();
+        this.priorCrimes = lowerCaseAll(criminal.getPriorCrimesView());
+
+        String mo = criminal.getModusOperandi().toLowerCase();
+        this.moOrganized = mo.contains("organized");
+        this.moDisorganized = mo.contains("disorganized") || mo.contains("impulsive");
+
+        String weapon = null;
+        if (criminal instanceof ViolentOffender) {
+            weapon = ((ViolentOffender) criminal).getWeaponPreference();
+        } else if (criminal instanceof Robber) {
+            weapon = ((Robber) criminal).getWeaponType();
+        }
+        this.weaponPreference = weapon != null ? weapon.toLowerCase() : null;
+
+        String victim = criminal instanceof SerialKiller ? ((SerialKiller) criminal).getVictimType() : null;
+        this.victimType = victim != null ? victim.toLowerCase() : null;
+
+        this.cyber = criminal instanceof CyberCriminal;
+        this.financial = criminal instanceof Fraudster || criminal instanceof MoneyLaunderer;
+        this.extremeDanger = criminal.getDangerLevel().equals("EXTREME");
+        this.riskFactor = criminal.getRiskFactor();
+        this.activity = criminal.getActivity();
+        this.linkedScenes = criminal.getLinkedScenesView();
+    }
+
+    /**
+     * Check if the criminal operates in a location by dictionary ID
+     */
+    boolean operatesIn(int locationId) {
+        return locationId >= 0 && Arrays.binarySearch(locationIds, locationId) >= 0;
+    }
+
+    /**
+     * Check if the criminal committed a lower-cased crime type
+     */
+    boolean hasCommitted(String crimeType) {
+        return contains(priorCrimes, crimeType);
+    }
+
+    private static boolean contains(String[] values, String value) {
+        for (String v : values) {
+            if (v.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] lowerCaseAll(List<String> values) {
+        String[] result = new String[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i).toLowerCase();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,354 @@
+package database;
+
+import models.*;
+import models.criminals.Criminal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Criminal Index
+ * Secondary indexes over the database maps. Criminal objects can be edited
+ * in place before updateCriminal is called, so the indexed keys of each
+ * criminal are remembered and used to unindex the old state. Scenes are
+ * likewise indexed by the time of crime they had when last indexed.
+ *
+ * Adding something already indexed re-indexes it instead of duplicating
+ * it, so a rebuild racing with a writer that indexes its own change
+ * still ends with one entry. Not thread-safe: the database guards it.
+ */
+class CriminalIndex {
+
+    private final SubstringIndex<Criminal> byName;
+    private final SubstringIndex<Criminal> byType;
+    private final SubstringIndex<Criminal> byModusOperandi;
+    private final Map<Integer, Set<Criminal>> byLocation;
+    private final GeoGrid<Criminal> byCoordinates;
+    private final Map<String, Set<Criminal>> byPriorCrime;
+    private final NavigableMap<Double, Set<Criminal>> byRiskFactor;
+    private final Map<String, Set<Criminal>> byDangerLevel;
+    private final Map<String, Set<Criminal>> byLinkedScene;
+    private final Map<Integer, Set<Criminal>> byActiveHour;
+    private final Map<Integer, Set<Criminal>> byActiveDay;
+    private final Set<Criminal> atLarge;
+    private final Map<String, IndexedState> indexedStates;
+
+    private final SubstringIndex<CrimeScene> scenesByType;
+    private final SubstringIndex<CrimeScene> scenesByLocation;
+    private final NavigableMap<LocalDateTime, Set<CrimeScene>> scenesByTime;
+    private final Map<CrimeScene, LocalDateTime> indexedScenes;
+
+    /**
+     * Keys a criminal was indexed under
+     */
+    private static class IndexedState {
+        private final Criminal criminal;
+        private final List<Integer> locations;
+        private final List<String> priorCrimes;
+        private final List<String> linkedScenes;
+        private final List<Integer> activeHours;
+        private final List<Integer> activeDays;
+        private final String dangerLevel;
+        private final double riskFactor;
+        private final boolean atLarge;
+
+        IndexedState(Criminal criminal, List<Integer> locations, List<String> priorCrimes) {
+            this.criminal = criminal;
+            this.locations = locations;
+            this.priorCrimes = priorCrimes;
+            this.linkedScenes = new ArrayList<>(criminal.getLinkedScenesView().keySet());
+            this.activeHours = criminal.getActivity().getActiveHours();
+            this.activeDays = criminal.getActivity().getActiveDays();
+            this.dangerLevel = criminal.getDangerLevel();
+            this.riskFactor = criminal.getRiskFactor();
+            this.atLarge = criminal.isAtLarge();
+        }
+    }
+
+    /**
+     * Constructor
+     */
+    CriminalIndex() {
+        this.byName = new SubstringIndex<>();
+        this.byType = new SubstringIndex<>();
+        this.byModusOperandi = new SubstringIndex<>();
+        this.byLocation = new HashMap<>();
+        this.byCoordinates = new GeoGrid<>();
+        this.byPriorCrime = new HashMap<>();
+        this.byRiskFactor = new TreeMap<>();
+        this.byDangerLevel = new HashMap<>();
+        this.byLinkedScene = new HashMap<>();
+        this.byActiveHour = new HashMap<>();
+        this.byActiveDay = new HashMap<>();
+        this.atLarge = new HashSet<>();
+        this.indexedStates = new HashMap<>();
+        this.scenesByType = new SubstringIndex<>();
+        this.scenesByLocation = new SubstringIndex<>();
+        this.scenesByTime = new TreeMap<>();
+        this.indexedScenes = new IdentityHashMap<>();
+    }
+
+    // ==================== CRIMINAL INDEXING ====================
+
+    /**
+     * Index a criminal's current state
+     */
+    void addCriminal(Criminal criminal) {
+        if (indexedStates.containsKey(criminal.getId())) {
+            removeCriminal(criminal.getId());
+        }
+
+        // Locations are keyed by LocationDictionary ID, the case folding scoring uses
+        List<Integer> locations = new ArrayList<>();
+        for (int id : criminal.getLocationIds()) {
+            locations.add(id);
+        }
+        addKeys(byLocation, locations, criminal);
+        List<String> priorCrimes = addAll(byPriorCrime, criminal.getPriorCrimesView(), criminal);
+        byCoordinates.add(criminal, criminal.getKnownPointsView());
+
+        IndexedState state = new IndexedState(criminal, locations, priorCrimes);
+        addKeys(byLinkedScene, state.linkedScenes, criminal);
+        addKeys(byActiveHour, state.activeHours, criminal);
+        addKeys(byActiveDay, state.activeDays, criminal);
+
+        byName.add(criminal.getName(), criminal);
+        byType.add(criminal.getCriminalType(), criminal);
+        byModusOperandi.add(criminal.getModusOperandi(), criminal);
+        byDangerLevel.computeIfAbsent(criminal.getDangerLevel(), k -> new HashSet<>()).add(criminal);
+        byRiskFactor.computeIfAbsent(criminal.getRiskFactor(), k -> new HashSet<>()).add(criminal);
+        if (criminal.isAtLarge()) {
+            atLarge.add(criminal);
+        }
+
+        indexedStates.put(criminal.getId(), state);
+    }
+
+    /**
+     * Index a criminal under each lower-cased value, returning the keys used
+     * (null values are skipped)
+     */
+    private static List<String> addAll(Map<String, Set<Criminal>> map, List<String> values,
+                                       Criminal criminal) {
+        List<String> keys = new ArrayList<>();
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            String key = value.toLowerCase();
+            if (!keys.contains(key)) {
+                keys.add(key);
+                map.computeIfAbsent(key, k -> new HashSet<>()).add(criminal);
+            }
+        }
+        return keys;
+    }
+
+    private static <K> void addKeys(Map<K, Set<Criminal>> map, List<K> keys, Criminal criminal) {
+        for (K key : keys) {
+            map.computeIfAbsent(key, k -> new HashSet<>()).add(criminal);
+        }
+    }
+
+    /**
+     * Remove a criminal using the keys it was indexed under
+     */
+    void removeCriminal(String criminalId) {
+        IndexedState state = indexedStates.remove(criminalId);
+        if (state == null) {
+            return;
+        }
+
+        Criminal criminal = state.criminal;
+        for (Integer location : state.locations) {
+            removeFrom(byLocation, location, criminal);
+        }
+        for (String crime : state.priorCrimes) {
+            removeFrom(byPriorCrime, crime, criminal);
+        }
+        byCoordinates.remove(criminal);
+        for (String sceneId : state.linkedScenes) {
+            removeFrom(byLinkedScene, sceneId, criminal);
+        }
+        for (Integer hour : state.activeHours) {
+            removeFrom(byActiveHour, hour, criminal);
+        }
+        for (Integer day : state.activeDays) {
+            removeFrom(byActiveDay, day, criminal);
+        }
+
+        byName.remove(criminal);
+        byType.remove(criminal);
+        byModusOperandi.remove(criminal);
+        removeFrom(byDangerLevel, state.dangerLevel, criminal);
+        removeFrom(byRiskFactor, state.riskFactor, criminal);
+        if (state.atLarge) {
+            atLarge.remove(criminal);
+        }
+    }
+
+    /**
+     * Re-index a criminal after an update
+     */
+    void updateCriminal(Criminal criminal) {
+        removeCriminal(criminal.getId());
+        addCriminal(criminal);
+    }
+
+    // ==================== SCENE INDEXING ====================
+
+    void addCrimeScene(CrimeScene scene) {
+        if (indexedScenes.containsKey(scene)) {
+            return;
+        }
+        LocalDateTime time = scene.getTimeOfCrime();
+        indexedScenes.put(scene, time);
+        scenesByType.add(scene.getCrimeType(), scene);
+        scenesByLocation.add(scene.getLocation(), scene);
+        if (time != null) {
+            scenesByTime.computeIfAbsent(time, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(scene);
+        }
+    }
+
+    void removeCrimeScene(CrimeScene scene) {
+        if (!indexedScenes.containsKey(scene)) {
+            return;
+        }
+        LocalDateTime time = indexedScenes.remove(scene);
+        scenesByType.remove(scene);
+        scenesByLocation.remove(scene);
+        if (time != null) {
+            Set<CrimeScene> set = scenesByTime.get(time);
+            set.remove(scene);
+            if (set.isEmpty()) {
+                scenesByTime.remove(time);
+            }
+        }
+    }
+
+    /**
+     * Re-index a scene after its time of crime changed
+     */
+    void updateSceneTime(CrimeScene scene) {
+        if (indexedScenes.containsKey(scene)) {
+            removeCrimeScene(scene);
+            addCrimeScene(scene);
+        }
+    }
+
+    // ==================== QUERIES ====================
+
+    List<Criminal> searchByName(String name) {
+        return byName.search(name);
+    }
+
+    List<Criminal> searchByType(String type) {
+        return byType.search(type);
+    }
+
+    List<Criminal> getByExactType(String type) {
+        return byType.get(type);
+    }
+
+    List<Criminal> searchByModusOperandi(String term) {
+        return byModusOperandi.search(term);
+    }
+
+    List<Criminal> getByPriorCrime(String crime) {
+        Set<Criminal> results = byPriorCrime.get(crime.toLowerCase());
+        return results == null ? new ArrayList<>() : new ArrayList<>(results);
+    }
+
+    List<Criminal> getByRiskAbove(double threshold) {
+        List<Criminal> results = new ArrayList<>();
+        for (Set<Criminal> bucket : byRiskFactor.tailMap(threshold, false).values()) {
+            results.addAll(bucket);
+        }
+        return results;
+    }
+
+    List<Criminal> getByLocation(String location) {
+        int id = LocationDictionary.find(location);
+        Set<Criminal> results = id < 0 ? null : byLocation.get(id);
+        return results == null ? new ArrayList<>() : new ArrayList<>(results);
+    }
+
+    List<Criminal> getNear(GeoPoint center, double radiusKm) {
+        return byCoordinates.search(center, radiusKm);
+    }
+
+    List<Criminal> getLinkedTo(String sceneId) {
+        Set<Criminal> results = byLinkedScene.get(sceneId);
+        return results == null ? new ArrayList<>() : new ArrayList<>(results);
+    }
+
+    List<Criminal> getByActiveHour(int hour) {
+        Set<Criminal> results = byActiveHour.get(hour);
+        return results == null ? new ArrayList<>() : new ArrayList<>(results);
+    }
+
+    List<Criminal> getByActiveDay(int day) {
+        Set<Criminal> results = byActiveDay.get(day);
+        return results == null ? new ArrayList<>() : new ArrayList<>(results);
+    }
+
+    List<Criminal> getByDangerLevel(String level) {
+        Set<Criminal> results = byDangerLevel.get(level);
+        return results == null ? new ArrayList<>() : new ArrayList<>(results);
+    }
+
+    List<Criminal> getAtLarge() {
+        return new ArrayList<>(atLarge);
+    }
+
+    List<CrimeScene> searchScenesByType(String crimeType) {
+        return scenesByType.search(crimeType);
+    }
+
+    List<CrimeScene> searchScenesByLocation(String location) {
+        return scenesByLocation.search(location);
+    }
+
+    /**
+     * Scenes with a time of crime in [from, to], earliest first
+     */
+    List<CrimeScene> getScenesBetween(LocalDateTime from, LocalDateTime to) {
+        List<CrimeScene> results = new ArrayList<>();
+        for (Set<CrimeScene> bucket : scenesByTime.subMap(from, true, to, true).values()) {
+            results.addAll(bucket);
+        }
+        return results;
+    }
+
+    /**
+     * Clear all indexes
+     */
+    void clear() {
+        byName.clear();
+        byType.clear();
+        byModusOperandi.clear();
+        byLocation.clear();
+        byCoordinates.clear();
+        byPriorCrime.clear();
+        byRiskFactor.clear();
+        byDangerLevel.clear();
+        byLinkedScene.clear();
+        byActiveHour.clear();
+        byActiveDay.clear();
+        atLarge.clear();
+        indexedStates.clear();
+        scenesByType.clear();
+        scenesByLocation.clear();
+        scenesByTime.clear();
+        indexedScenes.clear();
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Criminal>> map, K key, Criminal criminal) {
+        Set<Criminal> set = map.get(key);
+        if (set != null) {
+            set.remove(criminal);
+            if (set.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+}
@@ -84,7 +84,7 @@ public class CriminalProfilerApp {
                         break;
                     case 0:
                         running = false;
-                        Utils.saveAllData(database);
+                        Utils.closeAllData(database);
                         System.out.println("\n⏹ Shutting down Criminal Profiler System...");
                         System.out.println("✓ Data saved. System shut down successfully. Goodbye!");
                         break;
@@ -161,7 +161,7 @@ public class CriminalProfilerApp {
             Criminal c = criminals.get(i);
             System.out.println("\n" + (i + 1) + ". " + c.toString());
             System.out.println("   MO: " + c.getModusOperandi());
-            System.out.println("   Locations: " + c.getKnownLocations());
+            System.out.println("   Locations: " + c.getKnownLocationsView());
             System.out.println("   Status: " + (c.isAtLarge() ? "⚠️ AT LARGE" : "✓ CAPTURED"));
         }
     }
@@ -307,8 +307,7 @@ public class CriminalProfilerApp {
         System.out.println("\n🧠 ANALYZING CRIME SCENE: " + scene.getSceneId());
         System.out.println("Using AI-powered profiling...\n");
 
-        List<Criminal> criminals = database.getAllCriminals();
-        List<Suspect> suspects = engine.analyzeCrimeScene(scene, criminals);
+        List<Suspect> suspects = engine.getTopSuspects(scene, database, 5);
 
         System.out.println("=".repeat(60));
         System.out.println("              SUSPECT RANKING RESULTS");
@@ -366,8 +365,9 @@ public class CriminalProfilerApp {
         System.out.println("\n📤 EXPORT OPTIONS:");
         System.out.println("1. Export criminals to CSV");
         System.out.println("2. Export complete investigation package");
+        System.out.println("3. Export packages for all scenes (zip)");
 
-        int choice = getIntInput("\nChoose (1-2): ");
+        int choice = getIntInput("\nChoose (1-3): ");
 
         try {
             if (choice == 1) {
@@ -392,6 +392,20 @@ public class CriminalProfilerApp {
                     String report = ReportGenerator.generateInvestigationReport(scene, suspects);
                     ReportExporter.exportInvestigationPackage(scene, suspects, report, scene.getSceneId());
                 }
+            } else if (choice == 3) {
+                List<CrimeScene> scenes = database.getAllCrimeScenes();
+
+                if (scenes.isEmpty()) {
+                    System.out.println("❌ No scenes to export.");
+                    return;
+                }
+
+                // A package lists every suspect, so rank each scene in its export worker
+                // instead of holding full rankings for all scenes at once
+                List<Criminal> criminals = database.getAllCriminals();
+                ReportExporter.exportInvestigationPackages(scenes,
+                        scene -> engine.analyzeCrimeScene(scene, criminals, 1),
+                        Runtime.getRuntime().availableProcessors(), true);
             }
         } catch (Exception e) {
             System.out.println("❌ Export failed: " + e.getMessage());
@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Cyber Criminal Type
  */
 public class CyberCriminal extends Criminal {
 
+    private static final long serialVersionUID = 7445770054741674269L;
+
     private String specialization;
     private String skillLevel;
     private boolean partOfGroup;
@@ -71,5 +78,26 @@ public class CyberCriminal extends Criminal {
     public void addFinancialDamage(double damage) {
         this.financialDamage += damage;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(specialization);
+        out.writeString(skillLevel);
+        out.writeBoolean(partOfGroup);
+        out.writeString(preferredTarget);
+        out.writeVarInt(systemsCompromised);
+        out.writeDouble(financialDamage);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        specialization = in.readString();
+        skillLevel = in.readString();
+        partOfGroup = in.readBoolean();
+        preferredTarget = in.readString();
+        systemsCompromised = in.readVarInt();
+        financialDamage = in.readDouble();
+    }
 }
 
@@ -0,0 +1,702 @@
+package database;
+
+import models.*;
+import models.criminals.Criminal;
+import utils.IdAllocator;
+import utils.Utils;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+/**
+ * Database Journal
+ * Append-only write-ahead log for a CriminalDatabase.
+ *
+ * Every mutation is appended as one record: length, CRC32, sequence
+ * number, operation and payload. A background thread writes the records
+ * in groups with a single fsync per group, so a save only waits for the
+ * changes made since the last one. Once the log grows past a limit the
+ * whole database is written to a fresh snapshot (temp file + atomic
+ * rename) and the log is replaced by one holding only the records the
+ * snapshot may have missed.
+ *
+ * Recovery loads the snapshot and replays the log records newer than it.
+ * A torn record at the end of the log is discarded. Records use the
+ * BinaryCodec format and snapshots are memory-mapped ColumnarSnapshot
+ * files. Replaying a criminal record loads every criminal from the
+ * snapshot, so close() folds such records into a new snapshot first and
+ * the next open only maps it; only a log left by a crash is replayed.
+ * A Java-serialized .dat file from before journaling is converted on
+ * first open.
+ */
+public class DatabaseJournal implements CrimeSceneListener, Closeable {
+
+    // Record operations
+    private static final byte PUT_CRIMINAL = 1;
+    private static final byte REMOVE_CRIMINAL = 2;
+    private static final byte PUT_SCENE = 3;
+    private static final byte REMOVE_SCENE = 4;
+    private static final byte CLEAR = 5;
+    private static final byte ID_MARKS = 6;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    // length + crc + sequence + operation
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 1;
+
+    // Group commit: wait this long for more records unless the group is full
+    private static final long COMMIT_INTERVAL_MILLIS = 5;
+    private static final int GROUP_BYTES = 256 * 1024;
+
+    // Log size that triggers a checkpoint on commit
+    private static final long CHECKPOINT_BYTES = 16L * 1024 * 1024;
+
+    private final File snapshotFile;
+    private final File logFile;
+    private final CriminalDatabase database;
+
+    // Guards the log channel, which a checkpoint swaps for a new file.
+    // Taken before lock when both are needed.
+    private final Object logLock = new Object();
+    private FileChannel log;
+
+    private final Object lock = new Object();
+    private final Object checkpointLock = new Object();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private ByteArrayOutputStream spare = new ByteArrayOutputStream();
+    private long lastSequence;
+    private long durableSequence;
+    private long logBytes;
+    private boolean snapshotStale;
+    private boolean flushRequested;
+    private boolean closed;
+    private IOException failure;
+
+    // ID allocator high-water marks as last logged
+    private long loggedCriminalNumber;
+    private long loggedSceneNumber;
+
+    private final Thread flusher;
+
+    /**
+     * Constructor - starts the group commit thread
+     */
+    private DatabaseJournal(CriminalDatabase database, File snapshotFile, File logFile,
+                            FileChannel log, long lastSequence, boolean snapshotStale) throws IOException {
+        this.database = database;
+        this.snapshotFile = snapshotFile;
+        this.logFile = logFile;
+        this.log = log;
+        this.lastSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        this.logBytes = log.size();
+        this.snapshotStale = snapshotStale;
+
+        this.flusher = new Thread(this::flushLoop, "database-journal");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // ==================== OPEN / CREATE ====================
+
+    /**
+     * Recover a database from its snapshot and log, then keep journaling
+     * its changes. The database should be empty.
+     */
+    public static DatabaseJournal open(CriminalDatabase database, File snapshotFile, File logFile)
+            throws IOException {
+        if (database == null) {
+            throw new IllegalArgumentException("Database cannot be null");
+        }
+        if (database.getJournal() != null) {
+            throw new IllegalArgumentException("Database already has a journal");
+        }
+
+        boolean legacy = snapshotFile.length() > 0 && !ColumnarSnapshot.isColumnar(snapshotFile);
+        long snapshotSequence = loadSnapshot(database, snapshotFile);
+        FileChannel log = FileChannel.open(logFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        Replay replayed;
+        try {
+            replayed = replay(database, log, snapshotSequence);
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+
+        DatabaseJournal journal = new DatabaseJournal(database, snapshotFile, logFile, log,
+                replayed.lastSequence, replayed.changed);
+        database.setJournal(journal);
+
+        // Rewrite a pre-journal .dat file as a columnar snapshot once
+        if (legacy) {
+            journal.checkpoint();
+        }
+        return journal;
+    }
+
+    /**
+     * Write a first snapshot of the database and start journaling it
+     */
+    public static DatabaseJournal create(CriminalDatabase database, File snapshotFile, File logFile)
+            throws IOException {
+        if (database == null) {
+            throw new IllegalArgumentException("Database cannot be null");
+        }
+        if (database.getJournal() != null) {
+            throw new IllegalArgumentException("Database already has a journal");
+        }
+
+        writeSnapshot(database, snapshotFile, 0);
+        FileChannel log = FileChannel.open(logFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        log.truncate(0);
+        log.force(true);
+
+        DatabaseJournal journal = new DatabaseJournal(database, snapshotFile, logFile, log, 0, false);
+        database.setJournal(journal);
+        journal.recordIdMarks();
+        journal.sync();
+        return journal;
+    }
+
+    // ==================== LOGGING ====================
+
+    void criminalPut(Criminal criminal) {
+        append(PUT_CRIMINAL, BinaryCodec.encode(criminal));
+    }
+
+    void criminalRemoved(String criminalId) {
+        append(REMOVE_CRIMINAL, utf(criminalId));
+    }
+
+    void scenePut(CrimeScene scene) {
+        append(PUT_SCENE, BinaryCodec.encode(scene));
+    }
+
+    void sceneRemoved(String sceneId) {
+        append(REMOVE_SCENE, utf(sceneId));
+    }
+
+    void cleared() {
+        append(CLEAR, new byte[0]);
+    }
+
+    /**
+     * Log the ID allocator's high-water marks if they moved, so IDs that
+     * were handed out and later deleted are not reused after a restart
+     */
+    private void recordIdMarks() {
+        IdAllocator ids = Utils.getIdAllocator();
+        long criminalNumber = ids.getNextCriminalNumber();
+        long sceneNumber = ids.getNextSceneNumber();
+
+        synchronized (lock) {
+            if (criminalNumber == loggedCriminalNumber && sceneNumber == loggedSceneNumber) {
+                return;
+            }
+            loggedCriminalNumber = criminalNumber;
+            loggedSceneNumber = sceneNumber;
+        }
+        append(ID_MARKS, ByteBuffer.allocate(16).putLong(criminalNumber).putLong(sceneNumber).array());
+    }
+
+    // Stored scenes are edited in place, so log the whole scene again
+
+    @Override
+    public void evidenceChanged(CrimeScene scene, Evidence evidence, boolean added) {
+        scenePut(scene);
+    }
+
+    @Override
+    public void characteristicChanged(CrimeScene scene, String key) {
+        scenePut(scene);
+    }
+
+    @Override
+    public void victimProfileChanged(CrimeScene scene) {
+        scenePut(scene);
+    }
+
+    @Override
+    public void coordinatesChanged(CrimeScene scene) {
+        scenePut(scene);
+    }
+
+    @Override
+    public void timeOfCrimeChanged(CrimeScene scene) {
+        scenePut(scene);
+    }
+
+    /**
+     * Queue one record for the next group commit
+     */
+    private void append(byte operation, byte[] payload) {
+        CRC32 crc = new CRC32();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+
+            long sequence = ++lastSequence;
+            if (operation != ID_MARKS) {
+                snapshotStale = true;
+            }
+            header.putInt(payload.length).putInt(0).putLong(sequence).put(operation);
+            crc.update(header.array(), 8, HEADER_BYTES - 8);
+            crc.update(payload);
+            header.putInt(4, (int) crc.getValue());
+
+            boolean wasEmpty = pending.size() == 0;
+            pending.write(header.array(), 0, HEADER_BYTES);
+            pending.write(payload, 0, payload.length);
+
+            if (wasEmpty || pending.size() >= GROUP_BYTES) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // ==================== COMMIT ====================
+
+    /**
+     * Wait until every change made so far is on disk
+     */
+    public void sync() throws IOException {
+        synchronized (lock) {
+            long target = lastSequence;
+            flushRequested = true;
+            lock.notifyAll();
+
+            while (durableSequence < target && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while syncing journal");
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Make all changes durable, checkpointing if the log has grown large
+     */
+    public void commit() throws IOException {
+        recordIdMarks();
+        sync();
+        if (getLogSize() >= CHECKPOINT_BYTES) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Write the whole database to a new snapshot and drop the log records
+     * it covers. The database may be changed meanwhile: records logged
+     * after the snapshot's sequence are kept in the new log.
+     */
+    public void checkpoint() throws IOException {
+        synchronized (checkpointLock) {
+            sync();
+
+            long sequence;
+            synchronized (lock) {
+                sequence = lastSequence;
+                snapshotStale = false;
+            }
+
+            // A change is stored before it is logged, so every record up to
+            // this sequence is in the snapshot. Later ones may or may not
+            // be, and replaying them again is harmless.
+            writeSnapshot(database, snapshotFile, sequence);
+            rotateLog(sequence);
+
+            synchronized (lock) {
+                loggedCriminalNumber = 0;
+                loggedSceneNumber = 0;
+            }
+
+            // The new log starts with the marks
+            recordIdMarks();
+            sync();
+        }
+    }
+
+    /**
+     * Replace the log with one holding only the records after a sequence.
+     * The new log is written beside the old one and renamed over it, so a
+     * crash leaves one complete log or the other.
+     */
+    private void rotateLog(long sequence) throws IOException {
+        File temp = new File(logFile.getPath() + ".tmp");
+
+        synchronized (logLock) {
+            long keepFrom = offsetAfter(log, sequence);
+            long end = log.size();
+
+            try (FileChannel rotated = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long position = keepFrom;
+                while (position < end) {
+                    position += log.transferTo(position, end - position, rotated);
+                }
+                rotated.force(true);
+            }
+
+            // Closed first so the rename also works where open files are
+            // locked; if it fails the old log is reopened unchanged
+            log.close();
+            try {
+                Files.move(temp.toPath(), logFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                log = FileChannel.open(logFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+
+            synchronized (lock) {
+                logBytes = end - keepFrom;
+            }
+        }
+    }
+
+    /**
+     * Offset of the first record with a sequence above the given one.
+     * Records are written in sequence order.
+     */
+    private static long offsetAfter(FileChannel log, long sequence) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long offset = 0;
+        long end = log.size();
+
+        while (offset + HEADER_BYTES <= end) {
+            header.clear();
+            while (header.hasRemaining()) {
+                if (log.read(header, offset + header.position()) < 0) {
+                    return end;
+                }
+            }
+            if (header.getLong(8) > sequence) {
+                return offset;
+            }
+            offset += HEADER_BYTES + header.getInt(0);
+        }
+        return end;
+    }
+
+    /**
+     * Get the current log size in bytes (durable records only)
+     */
+    public long getLogSize() {
+        synchronized (lock) {
+            return logBytes;
+        }
+    }
+
+    /**
+     * Get the snapshot file
+     */
+    public File getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    /**
+     * Get the log file
+     */
+    public File getLogFile() {
+        return logFile;
+    }
+
+    /**
+     * Sync, stop journaling and release the log file. Changes not yet in
+     * the snapshot are checkpointed first, so the next open does not have
+     * to replay them.
+     */
+    @Override
+    public void close() throws IOException {
+        boolean stale;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            stale = snapshotStale;
+        }
+
+        try {
+            if (stale) {
+                checkpoint();
+            } else {
+                recordIdMarks();
+                sync();
+            }
+        } finally {
+            synchronized (lock) {
+                closed = true;
+                lock.notifyAll();
+            }
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            database.setJournal(null);
+            synchronized (logLock) {
+                log.close();
+            }
+        }
+    }
+
+    /**
+     * Group commit loop - one write and one fsync per batch of records
+     */
+    private void flushLoop() {
+        while (true) {
+            ByteArrayOutputStream batch;
+            long upTo;
+
+            synchronized (lock) {
+                try {
+                    while (pending.size() == 0 && !closed) {
+                        lock.wait();
+                    }
+                    if (pending.size() == 0) {
+                        return;
+                    }
+
+                    // Give other records a moment to join the group
+                    long deadline = System.currentTimeMillis() + COMMIT_INTERVAL_MILLIS;
+                    long remaining = COMMIT_INTERVAL_MILLIS;
+                    while (!closed && !flushRequested && pending.size() < GROUP_BYTES && remaining > 0) {
+                        lock.wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                batch = pending;
+                pending = spare;
+                spare = batch;
+                upTo = lastSequence;
+                flushRequested = false;
+            }
+
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+                synchronized (logLock) {
+                    log.position(log.size());
+                    while (buffer.hasRemaining()) {
+                        log.write(buffer);
+                    }
+                    log.force(false);
+
+                    // Counted under logLock so a rotation cannot count it twice
+                    synchronized (lock) {
+                        logBytes += batch.size();
+                        durableSequence = upTo;
+                        lock.notifyAll();
+                    }
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            } finally {
+                batch.reset();
+            }
+        }
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    /**
+     * Write the database as a columnar snapshot tagged with the last
+     * sequence it contains
+     */
+    private static void writeSnapshot(CriminalDatabase database, File snapshotFile, long sequence)
+            throws IOException {
+        File temp = new File(snapshotFile.getPath() + ".tmp");
+
+        ColumnarSnapshot.write(database, temp, sequence);
+
+        Files.move(temp.toPath(), snapshotFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load a snapshot into the database, returning its last sequence.
+     * Columnar snapshots are mapped and decoded lazily. The Java-serialized
+     * file saved before journaling is still read; it carries no sequence.
+     */
+    private static long loadSnapshot(CriminalDatabase database, File snapshotFile) throws IOException {
+        if (!snapshotFile.exists() || snapshotFile.length() == 0) {
+            return 0;
+        }
+
+        if (ColumnarSnapshot.isColumnar(snapshotFile)) {
+            ColumnarSnapshot snapshot = ColumnarSnapshot.open(snapshotFile);
+            database.attachSnapshot(snapshot);
+            return snapshot.getSequence();
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(snapshotFile), BUFFER_BYTES))) {
+            CriminalDatabase loaded = (CriminalDatabase) ois.readObject();
+
+            database.addCriminals(loaded.getAllCriminals());
+            for (CrimeScene scene : loaded.getAllCrimeScenes()) {
+                database.addCrimeScene(scene);
+            }
+            return 0;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unreadable snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    // ==================== RECOVERY ====================
+
+    /**
+     * What replaying a log found
+     */
+    private static final class Replay {
+        long lastSequence;
+        boolean changed;    // records other than ID marks were applied
+    }
+
+    /**
+     * Apply log records newer than the snapshot, dropping a torn tail
+     */
+    private static Replay replay(CriminalDatabase database, FileChannel log, long snapshotSequence)
+            throws IOException {
+        Replay replayed = new Replay();
+        replayed.lastSequence = snapshotSequence;
+        long validEnd = 0;
+
+        log.position(0);
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Channels.newInputStream(log), 1 << 16));
+        byte[] header = new byte[HEADER_BYTES];
+
+        while (true) {
+            if (!readFully(in, header)) {
+                break;
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            int length = buffer.getInt();
+            int storedCrc = buffer.getInt();
+            long sequence = buffer.getLong();
+            byte operation = buffer.get();
+
+            if (length < 0 || validEnd + HEADER_BYTES + length > log.size()) {
+                break;
+            }
+
+            byte[] payload = new byte[length];
+            if (!readFully(in, payload)) {
+                break;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(header, 8, HEADER_BYTES - 8);
+            crc.update(payload);
+            if ((int) crc.getValue() != storedCrc) {
+                break;
+            }
+
+            if (sequence > snapshotSequence) {
+                apply(database, operation, payload);
+                replayed.changed |= operation != ID_MARKS;
+            }
+            replayed.lastSequence = Math.max(replayed.lastSequence, sequence);
+            validEnd += HEADER_BYTES + length;
+        }
+
+        log.truncate(validEnd);
+        log.position(validEnd);
+        return replayed;
+    }
+
+    private static void apply(CriminalDatabase database, byte operation, byte[] payload) throws IOException {
+        switch (operation) {
+            case PUT_CRIMINAL:
+                Criminal criminal = BinaryCodec.decodeCriminal(payload);
+                if (database.hasCriminal(criminal.getId())) {
+                    database.updateCriminal(criminal);
+                } else {
+                    database.addCriminal(criminal);
+                }
+                break;
+
+            case REMOVE_CRIMINAL:
+                String criminalId = readUtf(payload);
+                if (database.hasCriminal(criminalId)) {
+                    database.removeCriminal(criminalId);
+                }
+                break;
+
+            case PUT_SCENE:
+                CrimeScene scene = BinaryCodec.decodeCrimeScene(payload);
+                if (database.hasCrimeScene(scene.getSceneId())) {
+                    database.removeCrimeScene(scene.getSceneId());
+                }
+                database.addCrimeScene(scene);
+                break;
+
+            case REMOVE_SCENE:
+                String sceneId = readUtf(payload);
+                if (database.hasCrimeScene(sceneId)) {
+                    database.removeCrimeScene(sceneId);
+                }
+                break;
+
+            case CLEAR:
+                database.clearAll();
+                break;
+
+            case ID_MARKS:
+                ByteBuffer marks = ByteBuffer.wrap(payload);
+                Utils.getIdAllocator().advance(marks.getLong(), marks.getLong());
+                break;
+
+            default:
+                throw new IOException("Unknown journal operation: " + operation);
+        }
+    }
+
+    private static boolean readFully(DataInputStream in, byte[] bytes) throws IOException {
+        try {
+            in.readFully(bytes);
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    // ==================== ENCODING ====================
+
+    private static byte[] utf(String value) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+            new DataOutputStream(bytes).writeUTF(value);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode journal record", e);
+        }
+    }
+
+    private static String readUtf(byte[] payload) throws IOException {
+        return new DataInputStream(new ByteArrayInputStream(payload)).readUTF();
+    }
+}
@@ -68,7 +68,6 @@ public class DatabaseManager {
         CrimeScene scene = new CrimeScene(id, crimeType, location);
 
         database.addCrimeScene(scene);
-        Utils.resetEvidenceCounter();
 
         return id;
     }
@@ -95,7 +94,7 @@ public class DatabaseManager {
     /**
      * Create criminal by type
      */
-    private Criminal createCriminalByType(String id, String name, int age, String gender, String type) {
+    static Criminal createCriminalByType(String id, String name, int age, String gender, String type) {
         switch (type.toLowerCase()) {
             case "serial killer":
                 return new SerialKiller(id, name, age, gender);
@@ -134,11 +133,7 @@ public class DatabaseManager {
      * Get all criminal types
      */
     public static String[] getCriminalTypes() {
-        return new String[] {
-                "Serial Killer", "Thief", "Violent Offender", "Fraudster", "Arsonist",
-                "Drug Trafficker", "Cyber Criminal", "Robber", "Kidnapper", "Money Launderer",
-                "Organized Crime Boss", "Human Trafficker", "Sexual Offender", "Terrorist"
-        };
+        return Criminal.getCriminalTypes();
     }
 
     // ==================== SEARCH METHODS ====================
@@ -147,77 +142,39 @@ public class DatabaseManager {
      * Search criminals by name
      */
     public List<Criminal> searchCriminalsByName(String name) {
-        List<Criminal> results = new ArrayList<>();
-        String searchTerm = name.toLowerCase();
-
-        for (Criminal criminal : database.getAllCriminals()) {
-            if (criminal.getName().toLowerCase().contains(searchTerm)) {
-                results.add(criminal);
-            }
-        }
-
-        return results;
+        return database.searchByName(name);
     }
 
     /**
      * Search criminals by type
      */
     public List<Criminal> searchCriminalsByType(String type) {
-        List<Criminal> results = new ArrayList<>();
-        String searchType = type.toLowerCase();
-
-        for (Criminal criminal : database.getAllCriminals()) {
-            if (criminal.getCriminalType().toLowerCase().contains(searchType)) {
-                results.add(criminal);
-            }
-        }
-
-        return results;
+        return database.searchByType(type);
     }
 
     /**
      * Search criminals by location
      */
     public List<Criminal> searchCriminalsByLocation(String location) {
-        List<Criminal> results = new ArrayList<>();
-
-        for (Criminal criminal : database.getAllCriminals()) {
-            if (criminal.operatesInLocation(location)) {
-                results.add(criminal);
-            }
-        }
-
-        return results;
+        return database.searchByLocation(location);
     }
 
     /**
      * Get criminals at large
      */
     public List<Criminal> getCriminalsAtLarge() {
-        List<Criminal> results = new ArrayList<>();
-
-        for (Criminal criminal : database.getAllCriminals()) {
-            if (criminal.isAtLarge()) {
-                results.add(criminal);
-            }
-        }
-
-        return results;
+        return database.getCriminalsAtLarge();
     }
 
     /**
-     * Get high danger criminals
+     * Get high danger criminals.
+     * Served from the danger level index: all EXTREME criminals come
+     * first, then all HIGH ones, instead of the two levels mixed in
+     * database order.
      */
     public List<Criminal> getHighDangerCriminals() {
-        List<Criminal> results = new ArrayList<>();
-
-        for (Criminal criminal : database.getAllCriminals()) {
-            if (criminal.getDangerLevel().equals("EXTREME") ||
-                    criminal.getDangerLevel().equals("HIGH")) {
-                results.add(criminal);
-            }
-        }
-
+        List<Criminal> results = database.searchByDangerLevel("EXTREME");
+        results.addAll(database.searchByDangerLevel("HIGH"));
         return results;
     }
 
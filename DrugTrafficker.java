@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Drug Trafficker Criminal Type
  */
 public class DrugTrafficker extends Criminal {
 
+    private static final long serialVersionUID = 2700908115603191709L;
+
     private String primaryDrug;
     private String operationScale;
     private boolean hasCartelConnections;
@@ -61,5 +68,24 @@ public class DrugTrafficker extends Criminal {
     public void addStreetValue(double value) {
         this.totalStreetValue += value;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(primaryDrug);
+        out.writeString(operationScale);
+        out.writeBoolean(hasCartelConnections);
+        out.writeBoolean(usesViolence);
+        out.writeDouble(totalStreetValue);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        primaryDrug = in.readString();
+        operationScale = in.readString();
+        hasCartelConnections = in.readBoolean();
+        usesViolence = in.readBoolean();
+        totalStreetValue = in.readDouble();
+    }
 }
 
@@ -1,5 +1,6 @@
 package models;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -21,6 +22,8 @@ import java.util.*;
  */
 public class Evidence implements Serializable {
 
+    private static final long serialVersionUID = -5321881966539672563L;
+
     // Valid evidence types
     private static final String[] VALID_TYPES = {
             "Weapon", "Digital", "Witness", "Document", "Fiber", "Ballistic",
@@ -91,6 +94,18 @@ public class Evidence implements Serializable {
         return VALID_TYPES.clone();
     }
 
+    /**
+     * Get type code for an evidence type, case-insensitive (-1 if unknown)
+     */
+    public static int typeCodeOf(String type) {
+        for (int i = 0; i < VALID_TYPES.length; i++) {
+            if (VALID_TYPES[i].equalsIgnoreCase(type)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     // ==================== ATTRIBUTE MANAGEMENT ====================
 
     /**
@@ -131,6 +146,13 @@ public class Evidence implements Serializable {
         return new HashMap<>(attributes); // Return copy for safety
     }
 
+    /**
+     * Read-only view of the attributes; no copy
+     */
+    public Map<String, String> getAttributesView() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
     // ==================== GETTERS ====================
 
     public String getEvidenceId() {
@@ -219,6 +241,33 @@ public class Evidence implements Serializable {
         return details.toString();
     }
 
+    // ==================== BINARY FORMAT ====================
+
+    /**
+     * Write this evidence in the compact binary format
+     */
+    public void writeTo(BinaryWriter out) throws IOException {
+        out.writeUniqueString(evidenceId);
+        out.writeString(type);
+        out.writeUniqueString(description);
+        out.writeString(location);
+        out.writeTime(collectedTime);
+        out.writeString(collectedBy);
+        out.writeStringMap(attributes);
+    }
+
+    /**
+     * Read evidence written by writeTo
+     */
+    public static Evidence readFrom(BinaryReader in) throws IOException {
+        Evidence evidence = new Evidence(in.readString(), in.readString(), in.readString(), null);
+        evidence.location = in.readString();
+        evidence.collectedTime = in.readTime();
+        evidence.collectedBy = in.readString();
+        evidence.attributes = in.readStringMap();
+        return evidence;
+    }
+
     // ==================== OBJECT METHODS ====================
 
     @Override
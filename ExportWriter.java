@@ -0,0 +1,184 @@
+package reports;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export Writer
+ * Large-buffer text writer for streaming exports, with optional gzip.
+ * Numbers are formatted by hand so rows can be written without
+ * String.format or per-row temporary strings.
+ */
+public class ExportWriter implements Closeable, Flushable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final Writer out;
+    private final char[] digits = new char[20];
+
+    /**
+     * Constructor - writes UTF-8 text to the given stream
+     */
+    public ExportWriter(OutputStream stream) {
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Open a file for writing, gzip-compressed if requested
+     */
+    public static ExportWriter open(String filename, boolean gzip) throws IOException {
+        OutputStream stream = Files.newOutputStream(Paths.get(filename));
+        if (gzip) {
+            stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+        }
+        return new ExportWriter(stream);
+    }
+
+    // ==================== TEXT ====================
+
+    public ExportWriter append(String text) throws IOException {
+        out.write(text);
+        return this;
+    }
+
+    public ExportWriter append(char c) throws IOException {
+        out.write(c);
+        return this;
+    }
+
+    public ExportWriter newLine() throws IOException {
+        out.write(LINE_SEPARATOR);
+        return this;
+    }
+
+    /**
+     * Write a double-quoted CSV field, doubling embedded quotes
+     */
+    public ExportWriter appendCsvQuoted(String text) throws IOException {
+        out.write('"');
+        if (text != null) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+        }
+        out.write('"');
+        return this;
+    }
+
+    /**
+     * Write a quoted JSON string (null is written as null)
+     */
+    public ExportWriter appendJsonString(String text) throws IOException {
+        if (text == null) {
+            out.write("null");
+            return this;
+        }
+
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write("\\u00");
+                        out.write(Character.forDigit(c >> 4, 16));
+                        out.write(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+        return this;
+    }
+
+    // ==================== NUMBERS ====================
+
+    public ExportWriter append(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            out.write(Long.toString(value));
+            return this;
+        }
+        if (value < 0) {
+            out.write('-');
+            value = -value;
+        }
+
+        int position = digits.length;
+        do {
+            digits[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        out.write(digits, position, digits.length - position);
+        return this;
+    }
+
+    /**
+     * Write a double with a fixed number of decimals, rounding half up
+     * like String.format("%.Nf")
+     */
+    public ExportWriter appendFixed(double value, int decimals) throws IOException {
+        if (decimals < 0 || decimals >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Decimals must be between 0 and " + (POWERS_OF_TEN.length - 1));
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            out.write(value > 0 ? "Infinity" : value < 0 ? "-Infinity" : "NaN");
+            return this;
+        }
+
+        long scale = POWERS_OF_TEN[decimals];
+        double magnitude = Math.abs(value);
+        double scaled = magnitude * scale;
+        double fraction = scaled - Math.floor(scaled);
+
+        // Near a rounding tie the binary product can land on the wrong side,
+        // and huge values do not fit a long: round the decimal form instead
+        if (scaled >= 1e15 || Math.abs(fraction - 0.5) < 1e-6) {
+            out.write(new BigDecimal(Double.toString(value)).setScale(decimals, RoundingMode.HALF_UP).toPlainString());
+            return this;
+        }
+
+        long rounded = Math.round(scaled);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            out.write('-');
+        }
+
+        append(rounded / scale);
+        if (decimals > 0) {
+            out.write('.');
+            long remainder = rounded % scale;
+            for (long unit = scale / 10; unit > 0; unit /= 10) {
+                out.write((char) ('0' + remainder / unit % 10));
+            }
+        }
+        return this;
+    }
+
+    // ==================== LIFECYCLE ====================
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,55 @@
+package models;
+
+/**
+ * Scoring Features
+ * Fixed index of the features the analysis engine can score.
+ * Names match the learning model's weight keys.
+ */
+public enum Feature {
+    CRIME_TYPE_MATCH,
+    MO_SIMILARITY,
+    LOCATION_PROXIMITY,
+    WEAPON_MATCH,
+    DIGITAL_EVIDENCE,
+    WITNESS_TESTIMONY,
+    SURVEILLANCE_FOOTAGE,
+    FINANCIAL_RECORDS,
+    PRIOR_CRIMES,
+    VICTIM_PROFILE_MATCH,
+    TIME_PATTERN,
+    SCENE_ORGANIZATION,
+    RISK_FACTOR,
+    DANGER_LEVEL;
+
+    private static final Feature[] VALUES = values();
+
+    /**
+     * Number of features
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+
+    /**
+     * Get feature by index
+     */
+    public static Feature at(int index) {
+        return VALUES[index];
+    }
+
+    /**
+     * Get feature by weight key (null if not a known feature)
+     */
+    public static Feature fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        for (Feature feature : VALUES) {
+            if (feature.name().equals(name)) {
+                return feature;
+            }
+        }
+        return null;
+    }
+}
@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Fraudster Criminal Type
  */
 public class Fraudster extends Criminal {
 
+    private static final long serialVersionUID = 6429916646469585748L;
+
     private String fraudType;
     private double totalDefraudedAmount;
     private String methodOfContact;
@@ -62,5 +69,24 @@ public class Fraudster extends Criminal {
     public void incrementVictimCount() {
         this.victimCount++;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(fraudType);
+        out.writeDouble(totalDefraudedAmount);
+        out.writeString(methodOfContact);
+        out.writeBoolean(usesOnlineTools);
+        out.writeVarInt(victimCount);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        fraudType = in.readString();
+        totalDefraudedAmount = in.readDouble();
+        methodOfContact = in.readString();
+        usesOnlineTools = in.readBoolean();
+        victimCount = in.readVarInt();
+    }
 }
 
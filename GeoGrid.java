@@ -0,0 +1,177 @@
+package database;
+
+import models.GeoPoint;
+import java.util.*;
+
+/**
+ * Geo Grid
+ * Spatial index over items with one or more coordinates. Points are
+ * bucketed by 25-bit geohash cell (5 characters, about 4.9 x 4.9 km at
+ * the equator); a radius query visits the cells overlapping the radius'
+ * bounding box and checks the exact great-circle distance.
+ */
+class GeoGrid<T> {
+
+    private static final int LON_BITS = 13;
+    private static final int LAT_BITS = 12;
+    private static final int LON_CELLS = 1 << LON_BITS;
+    private static final int LAT_CELLS = 1 << LAT_BITS;
+
+    private final Map<Long, Set<T>> cells;
+    private final Map<T, List<GeoPoint>> itemPoints;
+
+    /**
+     * Constructor
+     */
+    GeoGrid() {
+        this.cells = new HashMap<>();
+        this.itemPoints = new HashMap<>();
+    }
+
+    /**
+     * Index an item at its points (items without points are skipped)
+     */
+    void add(T item, Collection<GeoPoint> points) {
+        if (points.isEmpty()) {
+            return;
+        }
+        itemPoints.put(item, new ArrayList<>(points));
+        for (GeoPoint point : points) {
+            cells.computeIfAbsent(cellOf(point), k -> new HashSet<>()).add(item);
+        }
+    }
+
+    /**
+     * Remove an item using the points it was indexed at
+     */
+    void remove(T item) {
+        List<GeoPoint> points = itemPoints.remove(item);
+        if (points == null) {
+            return;
+        }
+        for (GeoPoint point : points) {
+            Long cell = cellOf(point);
+            Set<T> set = cells.get(cell);
+            if (set != null) {
+                set.remove(item);
+                if (set.isEmpty()) {
+                    cells.remove(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find items with any point within a distance of the center
+     */
+    List<T> search(GeoPoint center, double radiusKm) {
+        Set<T> candidates = new HashSet<>();
+
+        double latSpan = Math.toDegrees(radiusKm / GeoPoint.EARTH_RADIUS_KM);
+        double minLat = center.getLatitude() - latSpan;
+        double maxLat = center.getLatitude() + latSpan;
+        double maxAbsLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        double lonSpan = maxAbsLat >= 90.0 ? 180.0
+                : Math.toDegrees(radiusKm / (GeoPoint.EARTH_RADIUS_KM * Math.cos(Math.toRadians(maxAbsLat))));
+
+        int latFrom = latIndex(Math.max(-90.0, minLat));
+        int latTo = latIndex(Math.min(90.0, maxLat));
+        int lonFrom, lonTo;
+        if (lonSpan >= 180.0) {
+            lonFrom = 0;
+            lonTo = LON_CELLS - 1;
+        } else {
+            // May run past either edge; wrapped below
+            lonFrom = (int) Math.floor((center.getLongitude() - lonSpan + 180.0) / 360.0 * LON_CELLS);
+            lonTo = (int) Math.floor((center.getLongitude() + lonSpan + 180.0) / 360.0 * LON_CELLS);
+        }
+
+        long boxCells = (long) (latTo - latFrom + 1) * (lonTo - lonFrom + 1);
+        if (boxCells > cells.size()) {
+            // Radius larger than the populated area - walk the occupied cells
+            for (Map.Entry<Long, Set<T>> entry : cells.entrySet()) {
+                int lat = latOfCell(entry.getKey());
+                if (lat >= latFrom && lat <= latTo && lonInRange(lonOfCell(entry.getKey()), lonFrom, lonTo)) {
+                    candidates.addAll(entry.getValue());
+                }
+            }
+        } else {
+            for (int lat = latFrom; lat <= latTo; lat++) {
+                for (int lon = lonFrom; lon <= lonTo; lon++) {
+                    Set<T> set = cells.get(interleave(Math.floorMod(lon, LON_CELLS), lat));
+                    if (set != null) {
+                        candidates.addAll(set);
+                    }
+                }
+            }
+        }
+
+        List<T> results = new ArrayList<>();
+        for (T item : candidates) {
+            for (GeoPoint point : itemPoints.get(item)) {
+                if (!point.latitudeBeyondKm(center, radiusKm) && point.distanceKm(center) <= radiusKm) {
+                    results.add(item);
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Clear the index
+     */
+    void clear() {
+        cells.clear();
+        itemPoints.clear();
+    }
+
+    // ==================== CELLS ====================
+
+    /**
+     * Geohash cell of a point as interleaved bits (longitude first)
+     */
+    static long cellOf(GeoPoint point) {
+        int lon = Math.min(LON_CELLS - 1, (int) Math.floor((point.getLongitude() + 180.0) / 360.0 * LON_CELLS));
+        return interleave(lon, latIndex(point.getLatitude()));
+    }
+
+    private static int latIndex(double latitude) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((latitude + 90.0) / 180.0 * LAT_CELLS));
+    }
+
+    private static boolean lonInRange(int lon, int from, int to) {
+        if (to - from + 1 >= LON_CELLS) {
+            return true;
+        }
+        int offset = Math.floorMod(lon - from, LON_CELLS);
+        return offset <= to - from;
+    }
+
+    private static long interleave(int lon, int lat) {
+        long cell = 0;
+        for (int bit = LON_BITS - 1, i = 0; bit >= 0; bit--, i++) {
+            cell = (cell << 1) | ((lon >>> bit) & 1);
+            if (i < LAT_BITS) {
+                cell = (cell << 1) | ((lat >>> (LAT_BITS - 1 - i)) & 1);
+            }
+        }
+        return cell;
+    }
+
+    private static int lonOfCell(long cell) {
+        int lon = 0;
+        for (int pos = LON_BITS + LAT_BITS - 1; pos >= 0; pos -= 2) {
+            lon = (lon << 1) | (int) ((cell >>> pos) & 1);
+        }
+        return lon;
+    }
+
+    private static int latOfCell(long cell) {
+        int lat = 0;
+        for (int pos = LON_BITS + LAT_BITS - 2; pos >= 0; pos -= 2) {
+            lat = (lat << 1) | (int) ((cell >>> pos) & 1);
+        }
+        return lat;
+    }
+}
@@ -0,0 +1,81 @@
+package models;
+
+import java.io.Serializable;
+
+/**
+ * Geo Point
+ * Immutable latitude/longitude pair in decimal degrees (WGS84).
+ */
+public final class GeoPoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Mean Earth radius used for great-circle distances
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final double latitude;
+    private final double longitude;
+
+    /**
+     * Constructor with validation
+     */
+    public GeoPoint(double latitude, double longitude) {
+        if (!(latitude >= -90.0 && latitude <= 90.0)) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90: " + latitude);
+        }
+        if (!(longitude >= -180.0 && longitude <= 180.0)) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180: " + longitude);
+        }
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Great-circle distance in kilometres (haversine)
+     */
+    public double distanceKm(GeoPoint other) {
+        double dLat = Math.toRadians(other.latitude - latitude);
+        double dLon = Math.toRadians(other.longitude - longitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(other.latitude))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Cheap check that a point is too far north or south to be within a
+     * distance, before paying for the full haversine
+     */
+    public boolean latitudeBeyondKm(GeoPoint other, double km) {
+        return Math.abs(other.latitude - latitude) > Math.toDegrees(km / EARTH_RADIUS_KM);
+    }
+
+    // ==================== OBJECT METHODS ====================
+
+    @Override
+    public String toString() {
+        return String.format("(%.5f, %.5f)", latitude, longitude);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GeoPoint point = (GeoPoint) o;
+        return Double.compare(latitude, point.latitude) == 0
+                && Double.compare(longitude, point.longitude) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(latitude) + Double.hashCode(longitude);
+    }
+}
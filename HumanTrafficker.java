@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Human Trafficker Criminal Type
  */
 public class HumanTrafficker extends Criminal {
 
+    private static final long serialVersionUID = -8475428956932553431L;
+
     private String traffickingType;
     private int victimCount;
     private boolean internationalNetwork;
@@ -62,4 +69,23 @@ public class HumanTrafficker extends Criminal {
     public void incrementVictimCount() {
         this.victimCount++;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(traffickingType);
+        out.writeVarInt(victimCount);
+        out.writeBoolean(internationalNetwork);
+        out.writeString(targetDemographic);
+        out.writeBoolean(usesViolence);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        traffickingType = in.readString();
+        victimCount = in.readVarInt();
+        internationalNetwork = in.readBoolean();
+        targetDemographic = in.readString();
+        usesViolence = in.readBoolean();
+    }
 }
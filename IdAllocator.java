@@ -0,0 +1,290 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * ID Allocator
+ * Hands out criminal, scene and evidence IDs from atomic counters, so
+ * any number of threads can take IDs without locking or duplicates.
+ *
+ * Bulk loaders can reserve a block of numbers with one atomic add and
+ * format them locally. Evidence is numbered per scene. The counters only
+ * move forward: observing an existing ID (for example one loaded from
+ * disk) raises them past it.
+ */
+public class IdAllocator {
+
+    public static final String CRIMINAL_PREFIX = "CRIM";
+    public static final String SCENE_PREFIX = "SCENE";
+    public static final String EVIDENCE_MARKER = "-E";
+
+    private static final int CRIMINAL_DIGITS = 5;
+    private static final int SCENE_DIGITS = 4;
+    private static final int EVIDENCE_DIGITS = 3;
+
+    // Next number to hand out
+    private final AtomicLong nextCriminal = new AtomicLong(1);
+    private final AtomicLong nextScene = new AtomicLong(1);
+
+    // Last evidence number used, per scene ID
+    private final Map<String, AtomicInteger> evidenceSequences = new ConcurrentHashMap<>();
+
+    // ==================== SINGLE IDS ====================
+
+    /**
+     * Allocate the next criminal ID (CRIM00001, CRIM00002, ...)
+     */
+    public String nextCriminalId() {
+        return format(CRIMINAL_PREFIX, "", nextCriminal.getAndIncrement(), CRIMINAL_DIGITS);
+    }
+
+    /**
+     * Allocate the next scene ID (SCENE0001, SCENE0002, ...)
+     */
+    public String nextSceneId() {
+        return format(SCENE_PREFIX, "", nextScene.getAndIncrement(), SCENE_DIGITS);
+    }
+
+    /**
+     * Allocate the next evidence ID within a scene (SCENE0001-E001, ...)
+     */
+    public String nextEvidenceId(String sceneId) {
+        if (sceneId == null || sceneId.isEmpty()) {
+            throw new IllegalArgumentException("Scene ID cannot be empty");
+        }
+        return format(sceneId, EVIDENCE_MARKER, evidenceSequence(sceneId).incrementAndGet(), EVIDENCE_DIGITS);
+    }
+
+    /**
+     * Restart a scene's evidence numbering at 1. Also drops its entry, so
+     * call it for scenes that are gone.
+     */
+    public void resetEvidenceSequence(String sceneId) {
+        evidenceSequences.remove(sceneId);
+    }
+
+    /**
+     * Restart evidence numbering at 1 for every scene
+     */
+    public void resetEvidenceSequences() {
+        evidenceSequences.clear();
+    }
+
+    private AtomicInteger evidenceSequence(String sceneId) {
+        return evidenceSequences.computeIfAbsent(sceneId, id -> new AtomicInteger());
+    }
+
+    // ==================== BLOCKS ====================
+
+    /**
+     * Reserve 'count' consecutive criminal IDs for one loader thread
+     */
+    public IdBlock reserveCriminalIds(int count) {
+        return new IdBlock(CRIMINAL_PREFIX, CRIMINAL_DIGITS, reserve(nextCriminal, count), count);
+    }
+
+    /**
+     * Reserve 'count' consecutive scene IDs for one loader thread
+     */
+    public IdBlock reserveSceneIds(int count) {
+        return new IdBlock(SCENE_PREFIX, SCENE_DIGITS, reserve(nextScene, count), count);
+    }
+
+    /**
+     * Criminal ID source for one thread, reserving 'blockSize' IDs at a time.
+     * IDs left in the last block are skipped, not reused.
+     */
+    public Supplier<String> criminalIds(int blockSize) {
+        return blockSource(() -> reserveCriminalIds(blockSize));
+    }
+
+    /**
+     * Scene ID source for one thread, reserving 'blockSize' IDs at a time
+     */
+    public Supplier<String> sceneIds(int blockSize) {
+        return blockSource(() -> reserveSceneIds(blockSize));
+    }
+
+    private static long reserve(AtomicLong counter, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1");
+        }
+        return counter.getAndAdd(count);
+    }
+
+    private static Supplier<String> blockSource(Supplier<IdBlock> reserve) {
+        return new Supplier<String>() {
+            private IdBlock block;
+
+            @Override
+            public String get() {
+                if (block == null || !block.hasNext()) {
+                    block = reserve.get();
+                }
+                return block.next();
+            }
+        };
+    }
+
+    /**
+     * A reserved range of IDs. Not thread-safe: each thread takes its own.
+     */
+    public static final class IdBlock {
+        private final String prefix;
+        private final int digits;
+        private final long end;
+        private long next;
+
+        IdBlock(String prefix, int digits, long first, int count) {
+            this.prefix = prefix;
+            this.digits = digits;
+            this.next = first;
+            this.end = first + count;
+        }
+
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        public String next() {
+            if (next >= end) {
+                throw new IllegalStateException("ID block exhausted");
+            }
+            return format(prefix, "", next++, digits);
+        }
+
+        public int remaining() {
+            return (int) (end - next);
+        }
+    }
+
+    // ==================== HIGH-WATER MARKS ====================
+
+    /**
+     * Next criminal number to be handed out
+     */
+    public long getNextCriminalNumber() {
+        return nextCriminal.get();
+    }
+
+    /**
+     * Next scene number to be handed out
+     */
+    public long getNextSceneNumber() {
+        return nextScene.get();
+    }
+
+    /**
+     * Raise the next criminal number to at least the given one
+     */
+    public void advanceCriminalNumber(long number) {
+        if (number < 1) {
+            throw new IllegalArgumentException("Number must be at least 1");
+        }
+        nextCriminal.accumulateAndGet(number, Math::max);
+    }
+
+    /**
+     * Raise the next scene number to at least the given one
+     */
+    public void advanceSceneNumber(long number) {
+        if (number < 1) {
+            throw new IllegalArgumentException("Number must be at least 1");
+        }
+        nextScene.accumulateAndGet(number, Math::max);
+    }
+
+    /**
+     * Raise the counters to at least the given numbers
+     */
+    public void advance(long criminalNumber, long sceneNumber) {
+        nextCriminal.accumulateAndGet(criminalNumber, Math::max);
+        nextScene.accumulateAndGet(sceneNumber, Math::max);
+    }
+
+    /**
+     * Make sure an existing criminal ID is never handed out again
+     */
+    public void observeCriminalId(String id) {
+        long number = parseNumber(id, CRIMINAL_PREFIX);
+        if (number >= 0) {
+            nextCriminal.accumulateAndGet(number + 1, Math::max);
+        }
+    }
+
+    /**
+     * Make sure an existing scene ID is never handed out again
+     */
+    public void observeSceneId(String id) {
+        long number = parseNumber(id, SCENE_PREFIX);
+        if (number >= 0) {
+            nextScene.accumulateAndGet(number + 1, Math::max);
+        }
+    }
+
+    /**
+     * Make sure an existing evidence ID of a scene is never handed out again
+     */
+    public void observeEvidenceId(String sceneId, String evidenceId) {
+        if (sceneId == null || evidenceId == null || !evidenceId.startsWith(sceneId)) {
+            return;
+        }
+        long number = parseNumber(evidenceId.substring(sceneId.length()), EVIDENCE_MARKER);
+        if (number >= 0) {
+            evidenceSequence(sceneId).accumulateAndGet((int) Math.min(number, Integer.MAX_VALUE), Math::max);
+        }
+    }
+
+    // ==================== FORMATTING ====================
+
+    /**
+     * prefix + marker + number zero-padded to 'digits', like
+     * String.format("%s%s%0Nd") without the formatter
+     */
+    static String format(String prefix, String marker, long number, int digits) {
+        int length = 1;
+        for (long rest = number / 10; rest > 0; rest /= 10) {
+            length++;
+        }
+        int width = Math.max(length, digits);
+
+        int head = prefix.length() + marker.length();
+        char[] chars = new char[head + width];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        marker.getChars(0, marker.length(), chars, prefix.length());
+
+        int position = chars.length;
+        do {
+            chars[--position] = (char) ('0' + number % 10);
+            number /= 10;
+        } while (number > 0);
+        while (position > head) {
+            chars[--position] = '0';
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Number after the prefix, or -1 if the ID does not have that shape
+     */
+    private static long parseNumber(String id, String prefix) {
+        if (id == null || !id.startsWith(prefix) || id.length() == prefix.length()
+                || id.length() - prefix.length() > 18) {
+            return -1;
+        }
+
+        long number = 0;
+        for (int i = prefix.length(); i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+}
@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Kidnapper Criminal Type
  */
 public class Kidnapper extends Criminal {
 
+    private static final long serialVersionUID = 7124274620850518890L;
+
     private String motivation;
     private boolean demandsRansom;
     private int victimCount;
@@ -62,5 +69,24 @@ public class Kidnapper extends Criminal {
     public void addRansomAmount(double amount) {
         this.totalRansom += amount;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(motivation);
+        out.writeBoolean(demandsRansom);
+        out.writeVarInt(victimCount);
+        out.writeString(targetDemographic);
+        out.writeDouble(totalRansom);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        motivation = in.readString();
+        demandsRansom = in.readBoolean();
+        victimCount = in.readVarInt();
+        targetDemographic = in.readString();
+        totalRansom = in.readDouble();
+    }
 }
 
@@ -0,0 +1,69 @@
+package models;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Location Dictionary
+ * Process-wide interning of location names to small int IDs.
+ *
+ * Names are canonicalized per code point (upper then lower case), the same
+ * folding String.equalsIgnoreCase applies, so two names share an ID exactly
+ * when they are equal ignoring case. IDs are never reused or persisted;
+ * they only live as long as the process.
+ */
+public final class LocationDictionary {
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private LocationDictionary() {
+    }
+
+    /**
+     * Get the ID of a location, assigning one if it is new (-1 for null)
+     */
+    public static int intern(String location) {
+        if (location == null) {
+            return -1;
+        }
+        return IDS.computeIfAbsent(canonical(location), k -> NEXT_ID.getAndIncrement());
+    }
+
+    /**
+     * Get the ID of a location without assigning one (-1 if never interned)
+     */
+    public static int find(String location) {
+        if (location == null) {
+            return -1;
+        }
+        Integer id = IDS.get(canonical(location));
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Number of distinct locations interned so far
+     */
+    public static int size() {
+        return IDS.size();
+    }
+
+    /**
+     * Case-folded form of a location name
+     */
+    public static String canonical(String location) {
+        StringBuilder folded = null;
+        for (int i = 0; i < location.length(); ) {
+            int cp = location.codePointAt(i);
+            int fold = Character.toLowerCase(Character.toUpperCase(cp));
+            if (fold != cp && folded == null) {
+                folded = new StringBuilder(location.length()).append(location, 0, i);
+            }
+            if (folded != null) {
+                folded.appendCodePoint(fold);
+            }
+            i += Character.charCount(cp);
+        }
+        return folded != null ? folded.toString() : location;
+    }
+}
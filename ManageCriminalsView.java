@@ -143,15 +143,15 @@ public class ManageCriminalsView extends VBox {
         }
 
         details.append("Known Locations:\n");
-        for (String location : criminal.getKnownLocations()) {
+        for (String location : criminal.getKnownLocationsView()) {
             details.append("  • ").append(location).append("\n");
         }
 
         details.append("\nPrior Crimes:\n");
-        if (criminal.getPriorCrimes().isEmpty()) {
+        if (criminal.getPriorCrimesView().isEmpty()) {
             details.append("  None on record\n");
         } else {
-            for (String crime : criminal.getPriorCrimes()) {
+            for (String crime : criminal.getPriorCrimesView()) {
                 details.append("  • ").append(crime).append("\n");
             }
         }
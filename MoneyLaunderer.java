@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Money Launderer Criminal Type
  */
 public class MoneyLaunderer extends Criminal {
 
+    private static final long serialVersionUID = 1392577279082220960L;
+
     private String primaryMethod;
     private double totalLaundered;
     private boolean hasBankingConnections;
@@ -61,4 +68,23 @@ public class MoneyLaunderer extends Criminal {
     public void addLaunderedAmount(double amount) {
         this.totalLaundered += amount;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(primaryMethod);
+        out.writeDouble(totalLaundered);
+        out.writeBoolean(hasBankingConnections);
+        out.writeString(frontBusiness);
+        out.writeBoolean(internationalOperations);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        primaryMethod = in.readString();
+        totalLaundered = in.readDouble();
+        hasBankingConnections = in.readBoolean();
+        frontBusiness = in.readString();
+        internationalOperations = in.readBoolean();
+    }
 }
@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Organized Crime Boss Criminal Type
  */
 public class OrganizedCrimeBoss extends Criminal {
 
+    private static final long serialVersionUID = -4865114428872292788L;
+
     private String organizationName;
     private int memberCount;
     private String primaryActivity;
@@ -61,5 +68,24 @@ public class OrganizedCrimeBoss extends Criminal {
     public void setHasLegalBusinesses(boolean has) {
         this.hasLegalBusinesses = has;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(organizationName);
+        out.writeVarInt(memberCount);
+        out.writeString(primaryActivity);
+        out.writeString(territory);
+        out.writeBoolean(hasLegalBusinesses);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        organizationName = in.readString();
+        memberCount = in.readVarInt();
+        primaryActivity = in.readString();
+        territory = in.readString();
+        hasLegalBusinesses = in.readBoolean();
+    }
 }
 
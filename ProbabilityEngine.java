@@ -1,9 +1,17 @@
 package engine;
 
+import database.CriminalDatabase;
 import models.*;
 import models.criminals.*;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 /**
  * Probability Engine
@@ -14,6 +22,54 @@ public class ProbabilityEngine {
 
     private SimpleLearningModel learningModel;
 
+    // Criminals scored per fork-join leaf before a task stops splitting
+    private static final int PARALLEL_THRESHOLD = 2048;
+
+    // Scene-wide evidence counts for part of its weight
+    static final double SURVEILLANCE_MULTIPLIER = 0.5;
+    static final double WITNESS_MULTIPLIER = 0.7;
+
+    // LOCATION_PROXIMITY decays linearly from a known location to zero here
+    static final double PROXIMITY_RADIUS_KM = 10.0;
+
+    // TIME_PATTERN: hours either side of the scene's hour that count as the
+    // same time of day, and linked crimes needed before a pattern counts
+    static final int TIME_PATTERN_HOUR_WINDOW = 1;
+    static final int TIME_PATTERN_MIN_CRIMES = 2;
+
+    // Batch analysis tile size (criminals x scenes)
+    private static final int BATCH_CRIMINAL_TILE = 4096;
+    private static final int BATCH_SCENE_TILE = 64;
+
+    // Worker count for parallel scoring (1 = sequential)
+    private volatile int parallelism;
+
+    // Long-lived fork-join pools by worker count, created on first use.
+    // Never shut down: idle workers exit on their own, so a pool left
+    // behind by setParallelism drains instead of rejecting running work.
+    private final Map<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+
+    // Crime type keyword -> criminal type keyword rules
+    private static final String[][] TYPE_MATCH_RULES = {
+            {"murder", "serial killer"},
+            {"theft", "thief"},
+            {"assault", "violent offender"},
+            {"fraud", "fraudster"},
+            {"arson", "arsonist"},
+            {"kidnapping", "kidnapper"},
+            {"cybercrime", "cyber criminal"},
+            {"organizedcrime", "organized crime boss"},
+            {"drugtrafficking", "drug trafficker"},
+            {"humantrafficking", "human trafficker"},
+            {"robbery", "robber"},
+            {"sexualassault", "sexual offender"},
+            {"terrorism", "terrorist"},
+            {"moneylaundering", "money launderer"}
+    };
+
+    // Precomputed [crime type code][criminal type code] match table
+    private static final boolean[][] TYPE_MATCHES = buildTypeMatches();
+
     /**
      * Constructor with learning model
      */
@@ -22,6 +78,7 @@ public class ProbabilityEngine {
             throw new IllegalArgumentException("Learning model cannot be null");
         }
         this.learningModel = learningModel;
+        this.parallelism = 1;
     }
 
     /**
@@ -29,29 +86,47 @@ public class ProbabilityEngine {
      */
     public ProbabilityEngine() {
         this.learningModel = new SimpleLearningModel();
+        this.parallelism = 1;
     }
 
     // ==================== MAIN ANALYSIS METHOD ====================
 
     /**
      * Analyze crime scene and rank suspects
+     * Uses the engine's parallelism setting.
      */
     public List<Suspect> analyzeCrimeScene(CrimeScene scene, List<Criminal> criminals) {
+        return analyzeCrimeScene(scene, criminals, parallelism);
+    }
+
+    /**
+     * Analyze crime scene with an explicit parallelism for this call.
+     * Ranking is identical to the sequential path: suspects are scored in
+     * list order and then stably sorted.
+     */
+    public List<Suspect> analyzeCrimeScene(CrimeScene scene, List<Criminal> criminals, int parallelism) {
         if (scene == null) {
             throw new IllegalArgumentException("Crime scene cannot be null");
         }
 
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+
         if (criminals == null || criminals.isEmpty()) {
             return new ArrayList<>();
         }
 
-        List<Suspect> suspects = new ArrayList<>();
+        List<Suspect> suspects;
 
-        // Analyze each criminal
-        for (Criminal criminal : criminals) {
-            Suspect suspect = new Suspect(criminal);
-            calculateSuspectScore(suspect, scene);
-            suspects.add(suspect);
+        // Scene facts and weights are fixed for the whole analysis
+        SceneProfile profile = new SceneProfile(scene);
+        double[] weights = currentWeights();
+
+        if (parallelism == 1 || criminals.size() <= PARALLEL_THRESHOLD) {
+            suspects = scoreRange(profile, weights, criminals, 0, criminals.size());
+        } else {
+            suspects = scoreInParallel(profile, weights, criminals, parallelism);
         }
 
         // Sort by probability (highest first)
@@ -59,160 +134,503 @@ public class ProbabilityEngine {
         return suspects;
     }
 
-    // ==================== SCORING METHODS ====================
+    /**
+     * Score a contiguous slice of the criminal list
+     */
+    private List<Suspect> scoreRange(SceneProfile profile, double[] weights,
+                                     List<Criminal> criminals, int from, int to) {
+        List<Suspect> suspects = new ArrayList<>(to - from);
+        Consumer<Suspect> explainer = explainerFor(profile.scene);
+
+        // Analyze each criminal
+        for (int i = from; i < to; i++) {
+            Suspect suspect = new Suspect(criminals.get(i));
+            calculateSuspectScore(suspect, profile, weights);
+            suspect.setExplainer(explainer);
+            suspects.add(suspect);
+        }
+
+        return suspects;
+    }
 
     /**
-     * Calculate comprehensive score for a suspect
+     * Score the criminal list on a fork-join pool
      */
-    private void calculateSuspectScore(Suspect suspect, CrimeScene scene) {
-        Criminal criminal = suspect.getCriminal();
-        StringBuilder reasoning = new StringBuilder();
+    private List<Suspect> scoreInParallel(SceneProfile profile, double[] weights,
+                                          List<Criminal> criminals, int parallelism) {
+        // Index-based splitting needs cheap get(i)
+        List<Criminal> source = criminals instanceof RandomAccess ? criminals : new ArrayList<>(criminals);
+        ScoringTask task = new ScoringTask(profile, weights, source, 0, source.size());
+        return getPool(parallelism).invoke(task);
+    }
 
-        // Rule 1: Crime Type Match
-        double crimeTypeScore = scoreCrimeTypeMatch(criminal, scene);
-        if (crimeTypeScore > 0) {
-            suspect.addFeatureScore("CRIME_TYPE_MATCH", crimeTypeScore);
-            suspect.addMatchingFactor("Crime type matches");
-            reasoning.append("Crime type matches profile. ");
+    /**
+     * Get (or lazily create) the pool for a worker count
+     */
+    private ForkJoinPool getPool(int parallelism) {
+        return pools.computeIfAbsent(parallelism, ForkJoinPool::new);
+    }
+
+    /**
+     * Fork-join task that splits the criminal list in halves.
+     * Results are concatenated left-to-right to keep input order.
+     */
+    private class ScoringTask extends RecursiveTask<List<Suspect>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SceneProfile profile;
+        private final double[] weights;
+        private final List<Criminal> criminals;
+        private final int from;
+        private final int to;
+
+        ScoringTask(SceneProfile profile, double[] weights, List<Criminal> criminals, int from, int to) {
+            this.profile = profile;
+            this.weights = weights;
+            this.criminals = criminals;
+            this.from = from;
+            this.to = to;
         }
 
-        // Rule 2: Location Proximity
-        double locationScore = scoreLocationProximity(criminal, scene);
-        if (locationScore > 0) {
-            suspect.addFeatureScore("LOCATION_PROXIMITY", locationScore);
-            suspect.addMatchingFactor("Known to operate in area");
-            reasoning.append("Operates in this location. ");
+        @Override
+        protected List<Suspect> compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return scoreRange(profile, weights, criminals, from, to);
+            }
+
+            int mid = (from + to) >>> 1;
+            ScoringTask left = new ScoringTask(profile, weights, criminals, from, mid);
+            ScoringTask right = new ScoringTask(profile, weights, criminals, mid, to);
+            left.fork();
+
+            List<Suspect> rightResult = right.compute();
+            List<Suspect> result = left.join();
+            result.addAll(rightResult);
+            return result;
         }
+    }
 
-        // Rule 3: MO Similarity
-        double moScore = scoreMOSimilarity(criminal, scene);
-        if (moScore > 0) {
-            suspect.addFeatureScore("MO_SIMILARITY", moScore);
-            suspect.addMatchingFactor("MO matches");
-            reasoning.append("MO matches scene characteristics. ");
+    // ==================== BATCH ANALYSIS ====================
+
+    /**
+     * Rank suspects for many crime scenes in one pass.
+     * Per-criminal features are packed into columns once and shared by
+     * every scene; criminal x scene tiles run on the engine's pool. Each
+     * scene's list matches getTopSuspects for that scene alone.
+     */
+    public Map<CrimeScene, List<Suspect>> analyzeScenes(Collection<CrimeScene> scenes,
+                                                        List<Criminal> criminals, int topK) {
+        if (scenes == null) {
+            throw new IllegalArgumentException("Crime scenes cannot be null");
+        }
+        if (topK < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
         }
 
-        // Rule 4: Evidence Matches
-        scoreEvidenceMatches(suspect, criminal, scene, reasoning);
+        List<SceneProfile> profiles = new ArrayList<>(scenes.size());
+        for (CrimeScene scene : scenes) {
+            if (scene == null) {
+                throw new IllegalArgumentException("Crime scene cannot be null");
+            }
+            profiles.add(new SceneProfile(scene));
+        }
 
-        // Rule 5: Prior Crimes
-        double priorScore = scorePriorCrimes(criminal, scene);
-        if (priorScore > 0) {
-            suspect.addFeatureScore("PRIOR_CRIMES", priorScore);
-            suspect.addMatchingFactor("History of similar crimes");
-            reasoning.append("Has committed similar crimes. ");
+        Map<CrimeScene, List<Suspect>> results = new LinkedHashMap<>();
+        if (criminals == null || criminals.isEmpty() || topK == 0) {
+            for (SceneProfile profile : profiles) {
+                results.put(profile.scene, new ArrayList<>());
+            }
+            return results;
         }
 
-        // Rule 6: Victim Profile Match
-        double victimScore = scoreVictimProfile(criminal, scene);
-        if (victimScore > 0) {
-            suspect.addFeatureScore("VICTIM_PROFILE_MATCH", victimScore);
-            suspect.addMatchingFactor("Victim profile matches");
-            reasoning.append("Victim profile matches. ");
+        // Hoist per-criminal feature extraction out of the scene loop
+        CriminalColumns columns = new CriminalColumns(criminals);
+        double[] weights = currentWeights();
+
+        List<BatchTile> tiles = new ArrayList<>();
+        for (int c = 0; c < columns.size; c += BATCH_CRIMINAL_TILE) {
+            for (int s = 0; s < profiles.size(); s += BATCH_SCENE_TILE) {
+                tiles.add(new BatchTile(columns, c, Math.min(c + BATCH_CRIMINAL_TILE, columns.size),
+                        profiles, s, Math.min(s + BATCH_SCENE_TILE, profiles.size()), weights, topK));
+            }
         }
+        runTiles(tiles);
 
-        // Rule 7: Type-Specific Scoring
-        scoreTypeSpecificFeatures(suspect, criminal, scene, reasoning);
+        // Merge partial top-K lists per scene
+        for (int s = 0; s < profiles.size(); s++) {
+            TopSuspectCollector merged = new TopSuspectCollector(Math.min(topK, columns.size));
+            for (BatchTile tile : tiles) {
+                if (s >= tile.sceneFrom && s < tile.sceneTo) {
+                    tile.collectors[s - tile.sceneFrom].drainInto(merged);
+                }
+            }
+            CrimeScene scene = profiles.get(s).scene;
+            results.put(scene, explainAll(merged.toSortedList(), scene));
+        }
 
-        // Set reasoning
-        if (reasoning.length() == 0) {
-            reasoning.append("No significant matches found.");
+        return results;
+    }
+
+    // ==================== WEIGHT CHANGES ====================
+
+    /**
+     * Re-apply the model's current weights to already scored suspects and
+     * re-rank them. Every feature score is weight x multiplier, so this is
+     * a dot product per suspect - no rule is evaluated again. Ties keep
+     * their previous relative order.
+     */
+    public List<Suspect> reweightSuspects(List<Suspect> suspects) {
+        if (suspects == null) {
+            return new ArrayList<>();
         }
-        suspect.setReasoning(reasoning.toString().trim());
+
+        double[] weights = currentWeights();
+        for (Suspect suspect : suspects) {
+            suspect.applyWeights(weights);
+        }
+        suspects.sort(null);
+        return suspects;
+    }
+
+    /**
+     * Analyze a scene and keep the result current as weights change
+     */
+    public CachedAnalysis analyzeCached(CrimeScene scene, List<Criminal> criminals) {
+        return new CachedAnalysis(this, analyzeCrimeScene(scene, criminals));
     }
 
+    // ==================== INCREMENTAL ANALYSIS ====================
+
     /**
-     * Score crime type match
-     */
-    private double scoreCrimeTypeMatch(Criminal criminal, CrimeScene scene) {
-        String crimeType = scene.getCrimeType().toLowerCase();
-        String criminalType = criminal.getCriminalType().toLowerCase();
-
-        // Direct type matches
-        Map<String, String> typeMatches = new HashMap<>();
-        typeMatches.put("murder", "serial killer");
-        typeMatches.put("theft", "thief");
-        typeMatches.put("assault", "violent offender");
-        typeMatches.put("fraud", "fraudster");
-        typeMatches.put("arson", "arsonist");
-        typeMatches.put("kidnapping", "kidnapper");
-        typeMatches.put("cybercrime", "cyber criminal");
-        typeMatches.put("organizedcrime", "organized crime boss");
-        typeMatches.put("drugtrafficking", "drug trafficker");
-        typeMatches.put("humantrafficking", "human trafficker");
-        typeMatches.put("robbery", "robber");
-        typeMatches.put("sexualassault", "sexual offender");
-        typeMatches.put("terrorism", "terrorist");
-        typeMatches.put("moneylaundering", "money launderer");
-
-        for (Map.Entry<String, String> entry : typeMatches.entrySet()) {
-            if (crimeType.contains(entry.getKey()) && criminalType.contains(entry.getValue())) {
-                return learningModel.getWeight("CRIME_TYPE_MATCH");
+     * Open an analysis session that keeps the ranking for a scene current
+     * as evidence, characteristics and the victim profile change.
+     * Close the session when done so it stops listening to the scene.
+     */
+    public AnalysisSession openSession(CrimeScene scene, List<Criminal> criminals) {
+        if (scene == null) {
+            throw new IllegalArgumentException("Crime scene cannot be null");
+        }
+        return new AnalysisSession(this, scene, criminals != null ? criminals : new ArrayList<>());
+    }
+
+    /**
+     * Run batch tiles inline or on the pool
+     */
+    private void runTiles(List<BatchTile> tiles) {
+        int parallelism = this.parallelism;
+        if (parallelism == 1 || tiles.size() == 1) {
+            for (BatchTile tile : tiles) {
+                tile.call();
+            }
+            return;
+        }
+
+        try {
+            for (Future<TopSuspectCollector[]> future : getPool(parallelism).invokeAll(tiles)) {
+                future.get();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch analysis interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch analysis failed", e.getCause());
+        }
+    }
+
+    /**
+     * Snapshot of the model weights indexed by Feature
+     */
+    double[] currentWeights() {
+        return learningModel.getFeatureWeights();
+    }
+
+    /**
+     * Score one criminal against one scene profile into a scratch array.
+     * Mirrors calculateSuspectScore; returns the mask of scored features.
+     */
+    int scoreFeatures(CriminalFeatures c, SceneProfile p, double[] w, double[] scores) {
+        int mask = 0;
+
+        if (typeMatches(p, c.typeCode, c.criminal.getCriminalType())) {
+            mask = set(mask, scores, Feature.CRIME_TYPE_MATCH, w[Feature.CRIME_TYPE_MATCH.ordinal()]);
+        }
+        double near = proximity(p, c.operatesIn(p.locationId), c.points);
+        if (near > 0) {
+            mask = set(mask, scores, Feature.LOCATION_PROXIMITY, w[Feature.LOCATION_PROXIMITY.ordinal()] * near);
+        }
+        if ((p.organized && c.moOrganized) || (p.disorganized && c.moDisorganized)) {
+            mask = set(mask, scores, Feature.MO_SIMILARITY, w[Feature.MO_SIMILARITY.ordinal()]);
+        }
+
+        if (p.weaponMatches(c.weaponPreference)) {
+            mask = set(mask, scores, Feature.WEAPON_MATCH, w[Feature.WEAPON_MATCH.ordinal()]);
+        }
+        if (c.cyber && p.hasEvidence(SceneProfile.DIGITAL)) {
+            mask = set(mask, scores, Feature.DIGITAL_EVIDENCE, w[Feature.DIGITAL_EVIDENCE.ordinal()]);
+        }
+        if (p.hasEvidence(SceneProfile.SURVEILLANCE)) {
+            mask = set(mask, scores, Feature.SURVEILLANCE_FOOTAGE,
+                    w[Feature.SURVEILLANCE_FOOTAGE.ordinal()] * SURVEILLANCE_MULTIPLIER);
+        }
+        if (c.financial && p.hasEvidence(SceneProfile.FINANCIAL)) {
+            mask = set(mask, scores, Feature.FINANCIAL_RECORDS, w[Feature.FINANCIAL_RECORDS.ordinal()]);
+        }
+        if (p.hasEvidence(SceneProfile.WITNESS)) {
+            mask = set(mask, scores, Feature.WITNESS_TESTIMONY,
+                    w[Feature.WITNESS_TESTIMONY.ordinal()] * WITNESS_MULTIPLIER);
+        }
+
+        if (c.hasCommitted(p.crimeTypeLower)) {
+            mask = set(mask, scores, Feature.PRIOR_CRIMES, w[Feature.PRIOR_CRIMES.ordinal()]);
+        }
+        if (p.victimProfile != null && c.victimType != null && p.victimProfile.contains(c.victimType)) {
+            mask = set(mask, scores, Feature.VICTIM_PROFILE_MATCH, w[Feature.VICTIM_PROFILE_MATCH.ordinal()]);
+        }
+        double timeMatch = timePattern(p, c.activity, c.linkedScenes);
+        if (timeMatch > 0) {
+            mask = set(mask, scores, Feature.TIME_PATTERN, w[Feature.TIME_PATTERN.ordinal()] * timeMatch);
+        }
+        if (c.extremeDanger) {
+            mask = set(mask, scores, Feature.DANGER_LEVEL, w[Feature.DANGER_LEVEL.ordinal()]);
+        }
+        if (c.riskFactor > 0.7) {
+            mask = set(mask, scores, Feature.RISK_FACTOR, w[Feature.RISK_FACTOR.ordinal()] * c.riskFactor);
         }
 
-        return 0.0;
+        return mask;
     }
 
     /**
-     * Score location proximity
+     * Build a suspect from a feature mask, keeping weight x multiplier form
      */
-    private double scoreLocationProximity(Criminal criminal, CrimeScene scene) {
-        if (criminal.operatesInLocation(scene.getLocation())) {
-            return learningModel.getWeight("LOCATION_PROXIMITY");
+    static Suspect toSuspect(CriminalFeatures c, SceneProfile p, int mask, double[] w) {
+        Suspect suspect = new Suspect(c.criminal);
+        for (int i = 0; i < w.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                Feature feature = Feature.at(i);
+                suspect.addFeatureScore(feature, w[i], multiplier(feature, c, p));
+            }
         }
-        return 0.0;
+        return suspect;
     }
 
     /**
-     * Score MO similarity
+     * Multiplier applied to a feature's weight
      */
-    private double scoreMOSimilarity(Criminal criminal, CrimeScene scene) {
-        String mo = criminal.getModusOperandi().toLowerCase();
-        String organized = scene.getCharacteristic("organization");
+    private static double multiplier(Feature feature, CriminalFeatures c, SceneProfile p) {
+        switch (feature) {
+            case LOCATION_PROXIMITY:
+                return proximity(p, c.operatesIn(p.locationId), c.points);
+            case TIME_PATTERN:
+                return timePattern(p, c.activity, c.linkedScenes);
+            case SURVEILLANCE_FOOTAGE:
+                return SURVEILLANCE_MULTIPLIER;
+            case WITNESS_TESTIMONY:
+                return WITNESS_MULTIPLIER;
+            case RISK_FACTOR:
+                return c.riskFactor;
+            default:
+                return 1.0;
+        }
+    }
 
-        if (organized != null) {
-            if (organized.equalsIgnoreCase("organized") && mo.contains("organized")) {
-                return learningModel.getWeight("MO_SIMILARITY");
+    private static int set(int mask, double[] scores, Feature feature, double score) {
+        scores[feature.ordinal()] = score;
+        return mask | (1 << feature.ordinal());
+    }
+
+    /**
+     * Sum of the masked scores, in the same order as Suspect
+     */
+    static double sum(int mask, double[] scores) {
+        double sum = 0.0;
+        for (int i = 0; i < scores.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                sum += scores[i];
             }
+        }
+        return sum;
+    }
+
+    /**
+     * One criminal range x scene range of a batch analysis
+     */
+    private class BatchTile implements Callable<TopSuspectCollector[]> {
+
+        private final CriminalColumns columns;
+        private final int criminalFrom;
+        private final int criminalTo;
+        private final List<SceneProfile> profiles;
+        private final int sceneFrom;
+        private final int sceneTo;
+        private final double[] weights;
+        private final TopSuspectCollector[] collectors;
+
+        BatchTile(CriminalColumns columns, int criminalFrom, int criminalTo,
+                  List<SceneProfile> profiles, int sceneFrom, int sceneTo, double[] weights, int topK) {
+            this.columns = columns;
+            this.criminalFrom = criminalFrom;
+            this.criminalTo = criminalTo;
+            this.profiles = profiles;
+            this.sceneFrom = sceneFrom;
+            this.sceneTo = sceneTo;
+            this.weights = weights;
+            this.collectors = new TopSuspectCollector[sceneTo - sceneFrom];
+            // A tile can never keep more suspects than it scores
+            int capacity = Math.min(topK, criminalTo - criminalFrom);
+            for (int i = 0; i < collectors.length; i++) {
+                collectors[i] = new TopSuspectCollector(capacity);
+            }
+        }
+
+        @Override
+        public TopSuspectCollector[] call() {
+            double[] scores = new double[criminalTo - criminalFrom];
 
-            if (organized.equalsIgnoreCase("disorganized") &&
-                    (mo.contains("disorganized") || mo.contains("impulsive"))) {
-                return learningModel.getWeight("MO_SIMILARITY");
+            for (int s = sceneFrom; s < sceneTo; s++) {
+                SceneProfile profile = profiles.get(s);
+                TopSuspectCollector collector = collectors[s - sceneFrom];
+                columns.score(profile, weights, criminalFrom, criminalTo, scores);
+
+                for (int c = criminalFrom; c < criminalTo; c++) {
+                    // Only materialize suspects that make the cut
+                    if (collector.accepts(Math.min(100.0, scores[c - criminalFrom]), c)) {
+                        Suspect suspect = new Suspect(columns.criminals[c]);
+                        calculateSuspectScore(suspect, profile, weights);
+                        collector.offer(suspect, c);
+                    }
+                }
             }
+            return collectors;
+        }
+    }
+
+    // ==================== SCORING METHODS ====================
+
+    /**
+     * Calculate comprehensive score for a suspect (phase one)
+     * Numeric scores only - reasoning and matching factors are built later
+     * by explainSuspect for the suspects that are actually shown.
+     * Reads the scene through its profile and the weights from one snapshot,
+     * so nothing is looked up or allocated per evidence item.
+     */
+    private void calculateSuspectScore(Suspect suspect, SceneProfile p, double[] w) {
+        Criminal criminal = suspect.getCriminal();
+
+        // Rule 1: Crime Type Match
+        if (typeMatches(p, criminal.getCriminalTypeCode(), criminal.getCriminalType())) {
+            addScore(suspect, Feature.CRIME_TYPE_MATCH, w, 1.0);
+        }
+
+        // Rule 2: Location Proximity
+        double near = proximity(p, criminal.operatesInLocation(p.locationId), criminal.getKnownPointsView());
+        if (near > 0) {
+            addScore(suspect, Feature.LOCATION_PROXIMITY, w, near);
+        }
+
+        // Rule 3: MO Similarity
+        if (p.organized || p.disorganized) {
+            String mo = criminal.getModusOperandi();
+            boolean moMatch = p.organized
+                    ? SceneProfile.containsIgnoreCase(mo, "organized")
+                    : SceneProfile.containsIgnoreCase(mo, "disorganized")
+                    || SceneProfile.containsIgnoreCase(mo, "impulsive");
+            if (moMatch) {
+                addScore(suspect, Feature.MO_SIMILARITY, w, 1.0);
+            }
+        }
+
+        // Rule 4: Evidence Matches
+        if (p.hasEvidence(SceneProfile.WEAPON) && p.weaponMatchesIgnoreCase(weaponPreference(criminal))) {
+            addScore(suspect, Feature.WEAPON_MATCH, w, 1.0);
+        }
+        if (p.hasEvidence(SceneProfile.DIGITAL) && criminal instanceof CyberCriminal) {
+            addScore(suspect, Feature.DIGITAL_EVIDENCE, w, 1.0);
+        }
+        if (p.hasEvidence(SceneProfile.SURVEILLANCE)) {
+            addScore(suspect, Feature.SURVEILLANCE_FOOTAGE, w, SURVEILLANCE_MULTIPLIER);
+        }
+        if (p.hasEvidence(SceneProfile.FINANCIAL)
+                && (criminal instanceof Fraudster || criminal instanceof MoneyLaunderer)) {
+            addScore(suspect, Feature.FINANCIAL_RECORDS, w, 1.0);
+        }
+        if (p.hasEvidence(SceneProfile.WITNESS)) {
+            addScore(suspect, Feature.WITNESS_TESTIMONY, w, WITNESS_MULTIPLIER);
+        }
+
+        // Rule 5: Prior Crimes
+        if (criminal.hasCommitted(p.crimeType)) {
+            addScore(suspect, Feature.PRIOR_CRIMES, w, 1.0);
+        }
+
+        // Rule 6: Victim Profile Match
+        if (criminal instanceof SerialKiller && p.victimMatches(((SerialKiller) criminal).getVictimType())) {
+            addScore(suspect, Feature.VICTIM_PROFILE_MATCH, w, 1.0);
         }
 
-        return 0.0;
+        // Rule 7: Time Pattern of linked crimes
+        double timeMatch = timePattern(p, criminal.getActivity(), criminal.getLinkedScenesView());
+        if (timeMatch > 0) {
+            addScore(suspect, Feature.TIME_PATTERN, w, timeMatch);
+        }
+
+        // Rule 8: Type-Specific Scoring
+        if (criminal.getDangerLevel().equals("EXTREME")) {
+            addScore(suspect, Feature.DANGER_LEVEL, w, 1.0);
+        }
+        double risk = criminal.getRiskFactor();
+        if (risk > 0.7) {
+            addScore(suspect, Feature.RISK_FACTOR, w, risk);
+        }
+    }
+
+    private static void addScore(Suspect suspect, Feature feature, double[] w, double multiplier) {
+        suspect.addFeatureScore(feature, w[feature.ordinal()], multiplier);
     }
 
     /**
-     * Score all evidence matches
+     * Build reasoning and matching factors for a scored suspect (phase two)
      */
-    private void scoreEvidenceMatches(Suspect suspect, Criminal criminal,
-                                      CrimeScene scene, StringBuilder reasoning) {
+    public void explainSuspect(Suspect suspect, CrimeScene scene) {
+        if (suspect == null || scene == null) {
+            throw new IllegalArgumentException("Suspect and crime scene cannot be null");
+        }
+
+        Criminal criminal = suspect.getCriminal();
+        StringBuilder reasoning = new StringBuilder();
+
+        if (suspect.hasFeature(Feature.CRIME_TYPE_MATCH)) {
+            suspect.addMatchingFactor("Crime type matches");
+            reasoning.append("Crime type matches profile. ");
+        }
 
-        for (Evidence evidence : scene.getEvidenceList()) {
-            String type = evidence.getType();
+        if (suspect.hasFeature(Feature.LOCATION_PROXIMITY)) {
+            double km = scene.getCoordinates() == null || criminal.operatesInLocation(scene.getLocation())
+                    ? 0.0 : nearestKm(scene.getCoordinates(), criminal.getKnownPointsView());
+            if (km == 0.0 || Double.isInfinite(km)) {
+                suspect.addMatchingFactor("Known to operate in area");
+                reasoning.append("Operates in this location. ");
+            } else {
+                suspect.addMatchingFactor(String.format("Operates nearby (%.1f km)", km));
+                reasoning.append(String.format("Operates %.1f km from this location. ", km));
+            }
+        }
+
+        if (suspect.hasFeature(Feature.MO_SIMILARITY)) {
+            suspect.addMatchingFactor("MO matches");
+            reasoning.append("MO matches scene characteristics. ");
+        }
 
-            switch (type.toUpperCase()) {
+        // Evidence reasoning is per item, so walk the evidence again
+        for (Evidence evidence : scene.getEvidenceView()) {
+            switch (evidence.getType().toUpperCase()) {
                 case "WEAPON":
-                    if (criminal instanceof ViolentOffender) {
-                        ViolentOffender vo = (ViolentOffender) criminal;
-                        String weaponType = evidence.getAttribute("type");
-                        if (weaponType != null && vo.getWeaponPreference() != null &&
-                                vo.getWeaponPreference().toLowerCase().contains(weaponType.toLowerCase())) {
-                            suspect.addFeatureScore("WEAPON_MATCH",
-                                    learningModel.getWeight("WEAPON_MATCH"));
+                    if (weaponMatches(criminal, evidence)) {
+                        if (criminal instanceof ViolentOffender) {
                             suspect.addMatchingFactor("Weapon preference matches");
                             reasoning.append("Weapon type matches preference. ");
-                        }
-                    } else if (criminal instanceof Robber) {
-                        Robber robber = (Robber) criminal;
-                        String weaponType = evidence.getAttribute("type");
-                        if (weaponType != null && robber.getWeaponType() != null &&
-                                robber.getWeaponType().toLowerCase().contains(weaponType.toLowerCase())) {
-                            suspect.addFeatureScore("WEAPON_MATCH",
-                                    learningModel.getWeight("WEAPON_MATCH"));
+                        } else {
                             suspect.addMatchingFactor("Weapon type matches");
                             reasoning.append("Weapon matches. ");
                         }
@@ -221,96 +639,404 @@ public class ProbabilityEngine {
 
                 case "DIGITAL":
                     if (criminal instanceof CyberCriminal) {
-                        suspect.addFeatureScore("DIGITAL_EVIDENCE",
-                                learningModel.getWeight("DIGITAL_EVIDENCE"));
                         suspect.addMatchingFactor("Digital evidence present");
                         reasoning.append("Digital evidence links to cyber activity. ");
                     }
                     break;
 
                 case "SURVEILLANCE":
-                    suspect.addFeatureScore("SURVEILLANCE_FOOTAGE",
-                            learningModel.getWeight("SURVEILLANCE_FOOTAGE") * 0.5);
                     suspect.addMatchingFactor("Surveillance available");
                     break;
 
                 case "FINANCIAL":
                     if (criminal instanceof Fraudster || criminal instanceof MoneyLaunderer) {
-                        suspect.addFeatureScore("FINANCIAL_RECORDS",
-                                learningModel.getWeight("FINANCIAL_RECORDS"));
                         suspect.addMatchingFactor("Financial records present");
                         reasoning.append("Financial evidence relevant. ");
                     }
                     break;
 
                 case "WITNESS":
-                    suspect.addFeatureScore("WITNESS_TESTIMONY",
-                            learningModel.getWeight("WITNESS_TESTIMONY") * 0.7);
                     suspect.addMatchingFactor("Witness testimony");
                     break;
             }
         }
+
+        if (suspect.hasFeature(Feature.PRIOR_CRIMES)) {
+            suspect.addMatchingFactor("History of similar crimes");
+            reasoning.append("Has committed similar crimes. ");
+        }
+
+        if (suspect.hasFeature(Feature.VICTIM_PROFILE_MATCH)) {
+            suspect.addMatchingFactor("Victim profile matches");
+            reasoning.append("Victim profile matches. ");
+        }
+
+        if (suspect.hasFeature(Feature.TIME_PATTERN)) {
+            suspect.addMatchingFactor("Active at this time");
+            reasoning.append("Linked crimes were committed at similar times. ");
+        }
+
+        // Set reasoning
+        if (reasoning.length() == 0) {
+            reasoning.append("No significant matches found.");
+        }
+        suspect.setReasoning(reasoning.toString().trim());
     }
 
     /**
-     * Score prior crimes
+     * LOCATION_PROXIMITY multiplier: 1 for a known location of the same
+     * name, otherwise decaying linearly with the distance from the scene
+     * to the nearest located known location (0 at PROXIMITY_RADIUS_KM)
      */
-    private double scorePriorCrimes(Criminal criminal, CrimeScene scene) {
-        if (criminal.hasCommitted(scene.getCrimeType())) {
-            return learningModel.getWeight("PRIOR_CRIMES");
+    static double proximity(SceneProfile p, boolean sameName, List<GeoPoint> points) {
+        if (sameName) {
+            return 1.0;
         }
-        return 0.0;
+        if (p.coordinates == null || points.isEmpty()) {
+            return 0.0;
+        }
+        return proximity(nearestKm(p.coordinates, points));
+    }
+
+    static double proximity(double distanceKm) {
+        return distanceKm < PROXIMITY_RADIUS_KM ? 1.0 - distanceKm / PROXIMITY_RADIUS_KM : 0.0;
     }
 
     /**
-     * Score victim profile match
+     * Distance to the nearest point within PROXIMITY_RADIUS_KM (infinite
+     * if none is)
      */
-    private double scoreVictimProfile(Criminal criminal, CrimeScene scene) {
-        String victimProfile = scene.getVictimProfile();
-        if (victimProfile == null || victimProfile.trim().isEmpty()) {
+    static double nearestKm(GeoPoint center, List<GeoPoint> points) {
+        double nearest = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < points.size(); i++) {
+            GeoPoint point = points.get(i);
+            if (!point.latitudeBeyondKm(center, PROXIMITY_RADIUS_KM)) {
+                nearest = Math.min(nearest, point.distanceKm(center));
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * TIME_PATTERN multiplier: the mean of the shares of the criminal's
+     * linked crimes committed around the scene's hour and on its day of
+     * week, read from the activity histogram. A link to this scene itself
+     * is left out, so linking a suspect does not raise their own score.
+     */
+    static double timePattern(SceneProfile p, ActivityHistogram activity,
+                              Map<String, LocalDateTime> linkedScenes) {
+        if (p.hourOfCrime < 0 || activity.getTotal() < TIME_PATTERN_MIN_CRIMES) {
             return 0.0;
         }
 
-        // Check if criminal targets similar victims
-        if (criminal instanceof SerialKiller) {
-            SerialKiller sk = (SerialKiller) criminal;
-            if (sk.getVictimType() != null &&
-                    victimProfile.toLowerCase().contains(sk.getVictimType().toLowerCase())) {
-                return learningModel.getWeight("VICTIM_PROFILE_MATCH");
+        int total = activity.getTotal();
+        int sameHours = activity.getHourCount(p.hourOfCrime, TIME_PATTERN_HOUR_WINDOW);
+        int sameDay = activity.getDayCount(p.dayOfCrime);
+
+        LocalDateTime own = linkedScenes.get(p.sceneId);
+        if (own != null) {
+            total--;
+            if (ActivityHistogram.hoursApart(ActivityHistogram.hourOf(own), p.hourOfCrime)
+                    <= TIME_PATTERN_HOUR_WINDOW) {
+                sameHours--;
+            }
+            if (ActivityHistogram.dayOf(own) == p.dayOfCrime) {
+                sameDay--;
             }
         }
 
-        return 0.0;
+        if (total < TIME_PATTERN_MIN_CRIMES) {
+            return 0.0;
+        }
+        return (sameHours + sameDay) / (2.0 * total);
     }
 
     /**
-     * Score type-specific features
+     * Check a scene's crime type against a criminal type and its code
      */
-    private void scoreTypeSpecificFeatures(Suspect suspect, Criminal criminal,
-                                           CrimeScene scene, StringBuilder reasoning) {
-        // Add danger level consideration
-        String danger = criminal.getDangerLevel();
-        if (danger.equals("EXTREME")) {
-            suspect.addFeatureScore("DANGER_LEVEL",
-                    learningModel.getWeight("DANGER_LEVEL"));
+    static boolean typeMatches(SceneProfile p, int criminalCode, String criminalType) {
+        if (p.crimeTypeCode >= 0 && criminalCode >= 0) {
+            return TYPE_MATCHES[p.crimeTypeCode][criminalCode];
         }
+        // Type outside the known tables - fall back to keyword rules
+        return typeKeywordsMatch(p.crimeType, criminalType);
+    }
 
-        // Add risk factor
-        double risk = criminal.getRiskFactor();
-        if (risk > 0.7) {
-            suspect.addFeatureScore("RISK_FACTOR",
-                    learningModel.getWeight("RISK_FACTOR") * risk);
+    /**
+     * Check crime type against criminal type using the keyword rules
+     */
+    private static boolean typeKeywordsMatch(String crimeType, String criminalType) {
+        String crime = crimeType.toLowerCase();
+        String criminal = criminalType.toLowerCase();
+
+        for (String[] rule : TYPE_MATCH_RULES) {
+            if (crime.contains(rule[0]) && criminal.contains(rule[1])) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    /**
+     * Build the crime type / criminal type match table once
+     */
+    private static boolean[][] buildTypeMatches() {
+        String[] crimeTypes = CrimeScene.getValidCrimeTypes();
+        String[] criminalTypes = Criminal.getCriminalTypes();
+        boolean[][] table = new boolean[crimeTypes.length][criminalTypes.length];
+
+        for (int i = 0; i < crimeTypes.length; i++) {
+            for (int j = 0; j < criminalTypes.length; j++) {
+                table[i][j] = typeKeywordsMatch(crimeTypes[i], criminalTypes[j]);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Check weapon evidence against a criminal's weapon preference
+     */
+    private boolean weaponMatches(Criminal criminal, Evidence evidence) {
+        String weaponType = evidence.getAttribute("type");
+        if (weaponType == null) {
+            return false;
+        }
+
+        String preferred = weaponPreference(criminal);
+        return preferred != null && preferred.toLowerCase().contains(weaponType.toLowerCase());
+    }
+
+    /**
+     * Weapon preference of armed criminal types (null for others)
+     */
+    static String weaponPreference(Criminal criminal) {
+        if (criminal instanceof ViolentOffender) {
+            return ((ViolentOffender) criminal).getWeaponPreference();
+        } else if (criminal instanceof Robber) {
+            return ((Robber) criminal).getWeaponType();
+        }
+        return null;
     }
 
     // ==================== UTILITY METHODS ====================
 
     /**
      * Get top N suspects
+     * Keeps a bounded heap instead of sorting every scored criminal.
      */
     public List<Suspect> getTopSuspects(CrimeScene scene, List<Criminal> criminals, int count) {
-        List<Suspect> all = analyzeCrimeScene(scene, criminals);
-        return all.stream().limit(count).collect(Collectors.toList());
+        if (criminals == null) {
+            return new ArrayList<>();
+        }
+        return getTopSuspects(scene, criminals.iterator(), count);
+    }
+
+    /**
+     * Get top N suspects straight from an iterator (e.g. over storage)
+     */
+    public List<Suspect> getTopSuspects(CrimeScene scene, Iterator<Criminal> criminals, int count) {
+        if (scene == null) {
+            throw new IllegalArgumentException("Crime scene cannot be null");
+        }
+
+        SceneProfile profile = new SceneProfile(scene);
+        double[] weights = currentWeights();
+
+        TopSuspectCollector top = new TopSuspectCollector(count);
+        while (criminals.hasNext()) {
+            Suspect suspect = new Suspect(criminals.next());
+            calculateSuspectScore(suspect, profile, weights);
+            top.offer(suspect);
+        }
+        return explainAll(top.toSortedList(), scene);
+    }
+
+    /**
+     * Get top N suspects from a spliterator
+     */
+    public List<Suspect> getTopSuspects(CrimeScene scene, Spliterator<Criminal> criminals, int count) {
+        if (scene == null) {
+            throw new IllegalArgumentException("Crime scene cannot be null");
+        }
+
+        SceneProfile profile = new SceneProfile(scene);
+        double[] weights = currentWeights();
+
+        TopSuspectCollector top = new TopSuspectCollector(count);
+        criminals.forEachRemaining(criminal -> {
+            Suspect suspect = new Suspect(criminal);
+            calculateSuspectScore(suspect, profile, weights);
+            top.offer(suspect);
+        });
+        return explainAll(top.toSortedList(), scene);
+    }
+
+    // ==================== CANDIDATE GENERATION ====================
+
+    /**
+     * Get top N suspects from the database, scoring only likely candidates.
+     * Criminals outside findCandidates all share the same scene-wide score,
+     * so only the first N of them in database order can make the list.
+     * Suspects are ranked by their position in getAllCriminals(), so scores
+     * and tie-breaking match getTopSuspects over the whole database.
+     */
+    public List<Suspect> getTopSuspects(CrimeScene scene, CriminalDatabase database, int count) {
+        if (scene == null) {
+            throw new IllegalArgumentException("Crime scene cannot be null");
+        }
+        if (database == null) {
+            throw new IllegalArgumentException("Database cannot be null");
+        }
+
+        List<Criminal> candidates = findCandidates(scene, database);
+        List<Criminal> all = database.getAllCriminals();
+        SceneProfile profile = new SceneProfile(scene);
+        double[] weights = currentWeights();
+        TopSuspectCollector top = new TopSuspectCollector(Math.min(count, all.size()));
+        BitSet scored = new BitSet(all.size());
+
+        for (Criminal criminal : candidates) {
+            int position = all.indexOf(criminal);
+            if (position >= 0) {
+                top.offer(scoreSuspect(criminal, profile, weights), position);
+                scored.set(position);
+            }
+        }
+
+        // Fillers all score the same, so stop at the first one not kept
+        int position = 0;
+        for (Iterator<Criminal> it = all.iterator(); it.hasNext(); position++) {
+            Criminal criminal = it.next();
+            if (!scored.get(position)) {
+                Suspect filler = scoreSuspect(criminal, profile, weights);
+                if (!top.accepts(filler.getProbabilityScore(), position)) {
+                    break;
+                }
+                top.offer(filler, position);
+            }
+        }
+
+        return explainAll(top.toSortedList(), scene);
+    }
+
+    private Suspect scoreSuspect(Criminal criminal, SceneProfile profile, double[] weights) {
+        Suspect suspect = new Suspect(criminal);
+        calculateSuspectScore(suspect, profile, weights);
+        return suspect;
+    }
+
+    /**
+     * Analyze only the criminals with a known location within a radius of
+     * a located scene, using the database's spatial index
+     */
+    public List<Suspect> analyzeNearby(CrimeScene scene, CriminalDatabase database, double radiusKm) {
+        if (scene == null) {
+            throw new IllegalArgumentException("Crime scene cannot be null");
+        }
+        if (database == null) {
+            throw new IllegalArgumentException("Database cannot be null");
+        }
+        if (scene.getCoordinates() == null) {
+            throw new IllegalArgumentException("Crime scene has no coordinates");
+        }
+        return analyzeCrimeScene(scene, database.searchNear(scene.getCoordinates(), radiusKm));
+    }
+
+    /**
+     * Find criminals that can score on a criminal-specific feature.
+     *
+     * Uses the database indexes for: matching criminal type, the scene
+     * location and (for located scenes) the proximity radius around it,
+     * prior crimes of the same type, MO keywords for the scene's
+     * organization, linked crimes around the scene's hour or on its day of
+     * week, and the types that evidence and victim rules apply to.
+     *
+     * Fallback: DANGER_LEVEL and RISK_FACTOR do not depend on the scene, so
+     * EXTREME danger and high-risk criminals are always included. Anyone
+     * left out only receives the surveillance/witness scores, which are the
+     * same for every criminal.
+     */
+    public List<Criminal> findCandidates(CrimeScene scene, CriminalDatabase database) {
+        Set<Criminal> candidates = new LinkedHashSet<>();
+        String[] criminalTypes = Criminal.getCriminalTypes();
+
+        // Crime type match
+        int crimeCode = scene.getCrimeTypeCode();
+        for (int j = 0; j < criminalTypes.length; j++) {
+            if (crimeCode < 0 ? typeKeywordsMatch(scene.getCrimeType(), criminalTypes[j])
+                    : TYPE_MATCHES[crimeCode][j]) {
+                candidates.addAll(database.getCriminalsByType(criminalTypes[j]));
+            }
+        }
+
+        // Location (by name, and by distance when the scene is located) and prior crimes
+        candidates.addAll(database.searchByLocation(scene.getLocation()));
+        if (scene.getCoordinates() != null) {
+            candidates.addAll(database.searchNear(scene.getCoordinates(), PROXIMITY_RADIUS_KM));
+        }
+        candidates.addAll(database.searchByPriorCrime(scene.getCrimeType()));
+
+        // Time pattern of linked crimes
+        LocalDateTime time = scene.getTimeOfCrime();
+        if (time != null) {
+            int hour = ActivityHistogram.hourOf(time);
+            for (int offset = -TIME_PATTERN_HOUR_WINDOW; offset <= TIME_PATTERN_HOUR_WINDOW; offset++) {
+                candidates.addAll(database.searchByActiveHour(Math.floorMod(hour + offset, ActivityHistogram.HOURS)));
+            }
+            candidates.addAll(database.searchByActiveDay(time.getDayOfWeek()));
+        }
+
+        // MO similarity
+        String organized = scene.getCharacteristic("organization");
+        if (organized != null) {
+            if (organized.equalsIgnoreCase("organized")) {
+                candidates.addAll(database.searchByModusOperandi("organized"));
+            } else if (organized.equalsIgnoreCase("disorganized")) {
+                candidates.addAll(database.searchByModusOperandi("disorganized"));
+                candidates.addAll(database.searchByModusOperandi("impulsive"));
+            }
+        }
+
+        // Evidence and victim rules that only apply to certain types
+        if (scene.hasEvidenceType("Weapon")) {
+            candidates.addAll(database.getCriminalsByType("Violent Offender"));
+            candidates.addAll(database.getCriminalsByType("Robber"));
+        }
+        if (scene.hasEvidenceType("Digital")) {
+            candidates.addAll(database.getCriminalsByType("Cyber Criminal"));
+        }
+        if (scene.hasEvidenceType("Financial")) {
+            candidates.addAll(database.getCriminalsByType("Fraudster"));
+            candidates.addAll(database.getCriminalsByType("Money Launderer"));
+        }
+        String victimProfile = scene.getVictimProfile();
+        if (victimProfile != null && !victimProfile.trim().isEmpty()) {
+            candidates.addAll(database.getCriminalsByType("Serial Killer"));
+        }
+
+        // Fallback for global features
+        candidates.addAll(database.searchByDangerLevel("EXTREME"));
+        candidates.addAll(database.searchByRiskAbove(0.7));
+
+        return new ArrayList<>(candidates);
+    }
+
+    /**
+     * Attach the lazy explainer to ranked suspects
+     */
+    List<Suspect> explainAll(List<Suspect> suspects, CrimeScene scene) {
+        Consumer<Suspect> explainer = explainerFor(scene);
+        for (Suspect suspect : suspects) {
+            suspect.setExplainer(explainer);
+        }
+        return suspects;
+    }
+
+    /**
+     * Phase-two callback shared by every suspect of one analysis
+     */
+    private Consumer<Suspect> explainerFor(CrimeScene scene) {
+        return suspect -> explainSuspect(suspect, scene);
     }
 
     /**
@@ -329,5 +1055,22 @@ public class ProbabilityEngine {
         }
         this.learningModel = model;
     }
+
+    /**
+     * Get default parallelism used by analyzeCrimeScene
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Set default parallelism (1 = sequential scoring)
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
 }
 
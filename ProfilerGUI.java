@@ -194,7 +194,7 @@ public class ProfilerGUI extends Application {
             var c = criminals.get(i);
             content.append(String.format("%d. %s\n", i + 1, c.toString()));
             content.append(String.format("   MO: %s\n", c.getModusOperandi()));
-            content.append(String.format("   Locations: %s\n", c.getKnownLocations()));
+            content.append(String.format("   Locations: %s\n", c.getKnownLocationsView()));
             content.append(String.format("   Status: %s\n\n", c.isAtLarge() ? "AT LARGE" : "CAPTURED"));
         }
 
@@ -287,7 +287,7 @@ public class ProfilerGUI extends Application {
     @Override
     public void stop() {
         // Save data when closing
-        Utils.saveAllData(database);
+        Utils.closeAllData(database);
         System.out.println("Application closed. Data saved.");
     }
 
@@ -1,8 +1,14 @@
 package reports;
 
 import models.*;
+import models.criminals.Criminal;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Report Exporter
@@ -24,59 +30,222 @@ public class ReportExporter {
      * Export suspects to CSV
      */
     public static void exportSuspectsToCSV(List<Suspect> suspects, String filename) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            // Header
-            writer.println("Rank,Criminal ID,Name,Type,Probability,Confidence,Danger Level,Status");
+        exportSuspectsToCSV(suspects.iterator(), filename, false);
+    }
 
-            // Data
-            for (int i = 0; i < suspects.size(); i++) {
-                Suspect suspect = suspects.get(i);
-                var criminal = suspect.getCriminal();
-
-                writer.printf("%d,%s,%s,%s,%.1f%%,%s,%s,%s%n",
-                        i + 1,
-                        criminal.getId(),
-                        criminal.getName(),
-                        criminal.getCriminalType(),
-                        suspect.getProbabilityScore(),
-                        suspect.getConfidence(),
-                        criminal.getDangerLevel(),
-                        criminal.isAtLarge() ? "At Large" : "Captured"
-                );
-            }
+    /**
+     * Stream ranked suspects to CSV, optionally gzip-compressed
+     */
+    public static void exportSuspectsToCSV(Stream<Suspect> suspects, String filename, boolean gzip) throws IOException {
+        exportSuspectsToCSV(suspects.iterator(), filename, gzip);
+    }
 
+    /**
+     * Stream ranked suspects to CSV, optionally gzip-compressed.
+     * Rows are written as they are pulled, so memory use does not grow
+     * with the number of suspects.
+     */
+    public static void exportSuspectsToCSV(Iterator<Suspect> suspects, String filename, boolean gzip)
+            throws IOException {
+        try (ExportWriter writer = ExportWriter.open(filename, gzip)) {
+            writeSuspectsCSV(suspects, writer);
             System.out.println("✓ Suspects exported to " + filename);
         }
     }
 
+    private static void writeSuspectsCSV(Iterator<Suspect> suspects, ExportWriter writer) throws IOException {
+        // Header
+        writer.append("Rank,Criminal ID,Name,Type,Probability,Confidence,Danger Level,Status").newLine();
+
+        // Data
+        long rank = 0;
+        while (suspects.hasNext()) {
+            Suspect suspect = suspects.next();
+            Criminal criminal = suspect.getCriminal();
+
+            writer.append(++rank).append(',')
+                    .append(criminal.getId()).append(',')
+                    .append(criminal.getName()).append(',')
+                    .append(criminal.getCriminalType()).append(',')
+                    .appendFixed(suspect.getProbabilityScore(), 1).append("%,")
+                    .append(suspect.getConfidence()).append(',')
+                    .append(criminal.getDangerLevel()).append(',')
+                    .append(criminal.isAtLarge() ? "At Large" : "Captured")
+                    .newLine();
+        }
+    }
+
     /**
-     * Export evidence to CSV
+     * Stream criminals to CSV, optionally gzip-compressed
      */
-    public static void exportEvidenceToCSV(CrimeScene scene, String filename) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+    public static void exportCriminalsToCSV(Stream<? extends Criminal> criminals, String filename, boolean gzip)
+            throws IOException {
+        exportCriminalsToCSV(criminals.iterator(), filename, gzip);
+    }
+
+    /**
+     * Stream criminals to CSV, optionally gzip-compressed
+     */
+    public static void exportCriminalsToCSV(Iterator<? extends Criminal> criminals, String filename, boolean gzip)
+            throws IOException {
+        try (ExportWriter writer = ExportWriter.open(filename, gzip)) {
             // Header
-            writer.println("Evidence ID,Type,Description,Location,Collected Time");
+            writer.append("ID,Name,Age,Gender,Type,Danger Level,Status,MO").newLine();
 
             // Data
-            for (Evidence evidence : scene.getEvidenceList()) {
-                writer.printf("%s,%s,\"%s\",%s,%s%n",
-                        evidence.getEvidenceId(),
-                        evidence.getType(),
-                        evidence.getDescription().replace("\"", "\"\""),
-                        evidence.getLocation() != null ? evidence.getLocation() : "Unknown",
-                        evidence.getFormattedCollectionTime()
-                );
+            while (criminals.hasNext()) {
+                Criminal criminal = criminals.next();
+
+                writer.append(criminal.getId()).append(',')
+                        .append(criminal.getName()).append(',')
+                        .append(criminal.getAge()).append(',')
+                        .append(criminal.getGender()).append(',')
+                        .append(criminal.getCriminalType()).append(',')
+                        .append(criminal.getDangerLevel()).append(',')
+                        .append(criminal.isAtLarge() ? "At Large" : "Captured").append(',')
+                        .appendCsvQuoted(criminal.getModusOperandi())
+                        .newLine();
             }
 
+            System.out.println("✓ Criminals exported to " + filename);
+        }
+    }
+
+    /**
+     * Export evidence to CSV
+     */
+    public static void exportEvidenceToCSV(CrimeScene scene, String filename) throws IOException {
+        try (ExportWriter writer = ExportWriter.open(filename, false)) {
+            writeEvidenceCSV(scene, writer);
             System.out.println("✓ Evidence exported to " + filename);
         }
     }
 
+    private static void writeEvidenceCSV(CrimeScene scene, ExportWriter writer) throws IOException {
+        // Header
+        writer.append("Evidence ID,Type,Description,Location,Collected Time").newLine();
+
+        // Data
+        for (Evidence evidence : scene.getEvidenceView()) {
+            writer.append(evidence.getEvidenceId()).append(',')
+                    .append(evidence.getType()).append(',')
+                    .appendCsvQuoted(evidence.getDescription()).append(',')
+                    .append(evidence.getLocation() != null ? evidence.getLocation() : "Unknown").append(',')
+                    .append(evidence.getFormattedCollectionTime())
+                    .newLine();
+        }
+    }
+
+    // ==================== INVESTIGATION PACKAGES ====================
+
+    // Threads writing the files of a single package concurrently
+    private static final int PACKAGE_WRITERS = 4;
+    private static ExecutorService packageWriters;
+
+    /**
+     * One file of an investigation package
+     */
+    private interface PackagePart {
+        void writeTo(ExportWriter writer) throws IOException;
+    }
+
     /**
      * Export complete investigation package
+     * The four files are written concurrently from the same analysis.
      */
     public static void exportInvestigationPackage(CrimeScene scene, List<Suspect> suspects,
                                                   String report, String packageName) throws IOException {
+        exportInvestigationPackage(scene, suspects, report, packageName, false);
+    }
+
+    /**
+     * Export complete investigation package, either as a directory or as
+     * a single zip archive (investigation_<name>.zip)
+     */
+    public static void exportInvestigationPackage(CrimeScene scene, List<Suspect> suspects, String report,
+                                                  String packageName, boolean zip) throws IOException {
+        File target = writePackage(scene, suspects, report, packageName, zip, true);
+        System.out.println("✓ Complete investigation package exported to: " + target.getPath());
+    }
+
+    /**
+     * Export packages for many scenes from one batch analysis (for example
+     * ProbabilityEngine.analyzeScenes), at most 'concurrency' at a time.
+     * Each package is named after its scene ID.
+     */
+    public static void exportInvestigationPackages(Map<CrimeScene, List<Suspect>> analyses,
+                                                   int concurrency, boolean zip) throws IOException {
+        if (analyses == null) {
+            throw new IllegalArgumentException("Analyses cannot be null");
+        }
+        exportInvestigationPackages(analyses.keySet(), analyses::get, concurrency, zip);
+    }
+
+    /**
+     * Export packages for many scenes, at most 'concurrency' at a time.
+     * Each worker runs 'analysis' for its own scene, so only the rankings
+     * of the packages being written are held at once.
+     */
+    public static void exportInvestigationPackages(Collection<CrimeScene> scenes,
+                                                   Function<CrimeScene, List<Suspect>> analysis,
+                                                   int concurrency, boolean zip) throws IOException {
+        if (scenes == null) {
+            throw new IllegalArgumentException("Crime scenes cannot be null");
+        }
+        if (analysis == null) {
+            throw new IllegalArgumentException("Analysis cannot be null");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        if (scenes.isEmpty()) {
+            return;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(concurrency, scenes.size()),
+                daemonThreads("package-export"));
+        try {
+            List<Future<File>> exports = new ArrayList<>();
+            for (CrimeScene scene : scenes) {
+                exports.add(pool.submit(() -> {
+                    List<Suspect> suspects = analysis.apply(scene);
+                    String report = ReportGenerator.generateInvestigationReport(scene, suspects);
+                    // Scenes already run in parallel, so each package writes its files in turn
+                    return writePackage(scene, suspects, report, scene.getSceneId(), zip, false);
+                }));
+            }
+            awaitAll(exports);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        System.out.println("✓ Exported " + scenes.size() + " investigation packages");
+    }
+
+    /**
+     * Write the package files into a directory or a zip archive
+     */
+    private static File writePackage(CrimeScene scene, List<Suspect> suspects, String report,
+                                     String packageName, boolean zip, boolean concurrent) throws IOException {
+        Map<String, PackagePart> parts = new LinkedHashMap<>();
+        parts.put("full_report.txt", writer -> writer.append(report));
+        parts.put("suspects.csv", writer -> writeSuspectsCSV(suspects.iterator(), writer));
+        parts.put("evidence.csv", writer -> writeEvidenceCSV(scene, writer));
+        parts.put("summary.txt", writer -> writeSummary(scene, suspects, writer));
+
+        if (zip) {
+            File archive = new File("investigation_" + packageName + ".zip");
+            try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(archive));
+                 ExportWriter writer = new ExportWriter(out)) {
+                for (Map.Entry<String, PackagePart> part : parts.entrySet()) {
+                    out.putNextEntry(new ZipEntry(part.getKey()));
+                    part.getValue().writeTo(writer);
+                    writer.flush();
+                    out.closeEntry();
+                }
+            }
+            return archive;
+        }
 
         // Create directory for package
         File dir = new File("investigation_" + packageName);
@@ -84,97 +253,161 @@ public class ReportExporter {
             dir.mkdir();
         }
 
-        // Save main report
-        saveReportToFile(report, dir.getPath() + "/full_report.txt");
-
-        // Export suspects CSV
-        exportSuspectsToCSV(suspects, dir.getPath() + "/suspects.csv");
+        List<Future<File>> writes = new ArrayList<>();
+        for (Map.Entry<String, PackagePart> part : parts.entrySet()) {
+            File file = new File(dir, part.getKey());
+            if (concurrent) {
+                writes.add(packageWriters().submit(() -> writePart(file, part.getValue())));
+            } else {
+                writePart(file, part.getValue());
+            }
+        }
+        awaitAll(writes);
+        return dir;
+    }
 
-        // Export evidence CSV
-        exportEvidenceToCSV(scene, dir.getPath() + "/evidence.csv");
+    private static File writePart(File file, PackagePart part) throws IOException {
+        try (ExportWriter writer = ExportWriter.open(file.getPath(), false)) {
+            part.writeTo(writer);
+        }
+        return file;
+    }
 
-        // Create summary file
-        createSummaryFile(scene, suspects, dir.getPath() + "/summary.txt");
+    private static synchronized ExecutorService packageWriters() {
+        if (packageWriters == null) {
+            packageWriters = Executors.newFixedThreadPool(PACKAGE_WRITERS, daemonThreads("package-writer"));
+        }
+        return packageWriters;
+    }
 
-        System.out.println("✓ Complete investigation package exported to: " + dir.getPath());
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 
     /**
-     * Create summary file
+     * Wait for every task, rethrowing the first failure once all are done
      */
-    private static void createSummaryFile(CrimeScene scene, List<Suspect> suspects,
-                                          String filename) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            writer.println("═══════════════════════════════════════════");
-            writer.println("     INVESTIGATION PACKAGE SUMMARY");
-            writer.println("═══════════════════════════════════════════");
-            writer.println();
-
-            writer.println("CRIME SCENE INFORMATION:");
-            writer.println("  Scene ID: " + scene.getSceneId());
-            writer.println("  Crime Type: " + scene.getCrimeType());
-            writer.println("  Location: " + scene.getLocation());
-            writer.println("  Time of Crime: " + scene.getFormattedTimeOfCrime());
-            writer.println("  Evidence Items: " + scene.getEvidenceCount());
-            writer.println();
-
-            writer.println("ANALYSIS RESULTS:");
-            writer.println("  Total Suspects Identified: " + suspects.size());
-
-            if (!suspects.isEmpty()) {
-                Suspect top = suspects.get(0);
-                writer.println("  Top Suspect: " + top.getCriminal().getName());
-                writer.println("  Match Probability: " + String.format("%.1f%%", top.getProbabilityScore()));
-                writer.println("  Confidence: " + top.getConfidence());
+    private static <T> void awaitAll(List<Future<T>> tasks) throws IOException {
+        IOException failure = null;
+        for (Future<T> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export interrupted");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                IOException error = cause instanceof IOException
+                        ? (IOException) cause : new IOException("Export failed: " + cause.getMessage(), cause);
+                if (failure == null) {
+                    failure = error;
+                } else {
+                    failure.addSuppressed(error);
+                }
             }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
 
-            writer.println();
-            writer.println("PACKAGE CONTENTS:");
-            writer.println("  1. full_report.txt - Complete investigation report");
-            writer.println("  2. suspects.csv - Ranked suspect list");
-            writer.println("  3. evidence.csv - Evidence inventory");
-            writer.println("  4. summary.txt - This file");
-            writer.println();
-            writer.println("═══════════════════════════════════════════");
+    /**
+     * Write the package summary
+     */
+    private static void writeSummary(CrimeScene scene, List<Suspect> suspects,
+                                     ExportWriter writer) throws IOException {
+        writer.append("═══════════════════════════════════════════").newLine();
+        writer.append("     INVESTIGATION PACKAGE SUMMARY").newLine();
+        writer.append("═══════════════════════════════════════════").newLine();
+        writer.newLine();
+
+        writer.append("CRIME SCENE INFORMATION:").newLine();
+        writer.append("  Scene ID: " + scene.getSceneId()).newLine();
+        writer.append("  Crime Type: " + scene.getCrimeType()).newLine();
+        writer.append("  Location: " + scene.getLocation()).newLine();
+        writer.append("  Time of Crime: " + scene.getFormattedTimeOfCrime()).newLine();
+        writer.append("  Evidence Items: " + scene.getEvidenceCount()).newLine();
+        writer.newLine();
+
+        writer.append("ANALYSIS RESULTS:").newLine();
+        writer.append("  Total Suspects Identified: " + suspects.size()).newLine();
+
+        if (!suspects.isEmpty()) {
+            Suspect top = suspects.get(0);
+            writer.append("  Top Suspect: " + top.getCriminal().getName()).newLine();
+            writer.append("  Match Probability: ").appendFixed(top.getProbabilityScore(), 1).append('%').newLine();
+            writer.append("  Confidence: " + top.getConfidence()).newLine();
         }
+
+        writer.newLine();
+        writer.append("PACKAGE CONTENTS:").newLine();
+        writer.append("  1. full_report.txt - Complete investigation report").newLine();
+        writer.append("  2. suspects.csv - Ranked suspect list").newLine();
+        writer.append("  3. evidence.csv - Evidence inventory").newLine();
+        writer.append("  4. summary.txt - This file").newLine();
+        writer.newLine();
+        writer.append("═══════════════════════════════════════════").newLine();
     }
 
     /**
      * Export to JSON format
      */
     public static void exportToJSON(CrimeScene scene, List<Suspect> suspects, String filename) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            writer.println("{");
-            writer.println("  \"crime_scene\": {");
-            writer.println("    \"id\": \"" + scene.getSceneId() + "\",");
-            writer.println("    \"type\": \"" + scene.getCrimeType() + "\",");
-            writer.println("    \"location\": \"" + scene.getLocation() + "\",");
-            writer.println("    \"time\": \"" + scene.getFormattedTimeOfCrime() + "\",");
-            writer.println("    \"evidence_count\": " + scene.getEvidenceCount());
-            writer.println("  },");
-
-            writer.println("  \"suspects\": [");
-            for (int i = 0; i < suspects.size(); i++) {
-                Suspect s = suspects.get(i);
-                var c = s.getCriminal();
-
-                writer.println("    {");
-                writer.println("      \"rank\": " + (i + 1) + ",");
-                writer.println("      \"id\": \"" + c.getId() + "\",");
-                writer.println("      \"name\": \"" + c.getName() + "\",");
-                writer.println("      \"type\": \"" + c.getCriminalType() + "\",");
-                writer.println("      \"probability\": " + s.getProbabilityScore() + ",");
-                writer.println("      \"confidence\": \"" + s.getConfidence() + "\"");
-                writer.print("    }");
-
-                if (i < suspects.size() - 1) {
-                    writer.println(",");
-                } else {
-                    writer.println();
+        exportToJSON(scene, suspects.iterator(), filename, false);
+    }
+
+    /**
+     * Stream ranked suspects to JSON, optionally gzip-compressed
+     */
+    public static void exportToJSON(CrimeScene scene, Stream<Suspect> suspects, String filename, boolean gzip)
+            throws IOException {
+        exportToJSON(scene, suspects.iterator(), filename, gzip);
+    }
+
+    /**
+     * Stream ranked suspects to JSON, optionally gzip-compressed
+     */
+    public static void exportToJSON(CrimeScene scene, Iterator<Suspect> suspects, String filename, boolean gzip)
+            throws IOException {
+        try (ExportWriter writer = ExportWriter.open(filename, gzip)) {
+            writer.append("{").newLine();
+            writer.append("  \"crime_scene\": {").newLine();
+            writer.append("    \"id\": ").appendJsonString(scene.getSceneId()).append(',').newLine();
+            writer.append("    \"type\": ").appendJsonString(scene.getCrimeType()).append(',').newLine();
+            writer.append("    \"location\": ").appendJsonString(scene.getLocation()).append(',').newLine();
+            writer.append("    \"time\": ").appendJsonString(scene.getFormattedTimeOfCrime()).append(',').newLine();
+            writer.append("    \"evidence_count\": ").append(scene.getEvidenceCount()).newLine();
+            writer.append("  },").newLine();
+
+            writer.append("  \"suspects\": [").newLine();
+            long rank = 0;
+            while (suspects.hasNext()) {
+                Suspect s = suspects.next();
+                Criminal c = s.getCriminal();
+
+                // Separator goes before each element after the first
+                if (rank > 0) {
+                    writer.append(',').newLine();
                 }
+
+                writer.append("    {").newLine();
+                writer.append("      \"rank\": ").append(++rank).append(',').newLine();
+                writer.append("      \"id\": ").appendJsonString(c.getId()).append(',').newLine();
+                writer.append("      \"name\": ").appendJsonString(c.getName()).append(',').newLine();
+                writer.append("      \"type\": ").appendJsonString(c.getCriminalType()).append(',').newLine();
+                writer.append("      \"probability\": ").append(Double.toString(s.getProbabilityScore())).append(',').newLine();
+                writer.append("      \"confidence\": ").appendJsonString(s.getConfidence()).newLine();
+                writer.append("    }");
+            }
+            if (rank > 0) {
+                writer.newLine();
             }
-            writer.println("  ]");
-            writer.println("}");
+            writer.append("  ]").newLine();
+            writer.append("}").newLine();
 
             System.out.println("✓ Data exported to JSON: " + filename);
         }
@@ -213,7 +446,7 @@ public class ReportExporter {
             writer.println("─".repeat(43));
 
             int count = 1;
-            for (Evidence evidence : scene.getEvidenceList()) {
+            for (Evidence evidence : scene.getEvidenceView()) {
                 writer.println();
                 writer.println("Evidence #" + count++);
                 writer.println("  ID: " + evidence.getEvidenceId());
@@ -61,9 +61,9 @@ public class ReportGenerator {
         }
 
         // Scene Characteristics
-        if (!scene.getSceneCharacteristics().isEmpty()) {
+        if (!scene.getSceneCharacteristicsView().isEmpty()) {
             report.append("\nScene Characteristics:\n");
-            for (var entry : scene.getSceneCharacteristics().entrySet()) {
+            for (var entry : scene.getSceneCharacteristicsView().entrySet()) {
                 report.append("  • ").append(entry.getKey()).append(": ")
                         .append(entry.getValue()).append("\n");
             }
@@ -76,7 +76,7 @@ public class ReportGenerator {
         report.append("2. EVIDENCE COLLECTED\n");
         report.append("─".repeat(80)).append("\n\n");
 
-        List<Evidence> evidenceList = scene.getEvidenceList();
+        List<Evidence> evidenceList = scene.getEvidenceView();
 
         if (evidenceList.isEmpty()) {
             report.append("No evidence collected at this scene.\n");
@@ -97,9 +97,9 @@ public class ReportGenerator {
                     report.append("  Collected By: ").append(evidence.getCollectedBy()).append("\n");
                 }
 
-                if (!evidence.getAttributes().isEmpty()) {
+                if (!evidence.getAttributesView().isEmpty()) {
                     report.append("  Attributes:\n");
-                    for (var attr : evidence.getAttributes().entrySet()) {
+                    for (var attr : evidence.getAttributesView().entrySet()) {
                         report.append("    - ").append(attr.getKey()).append(": ")
                                 .append(attr.getValue()).append("\n");
                     }
@@ -126,6 +126,7 @@ public class ReportGenerator {
             for (int i = 0; i < displayCount; i++) {
                 Suspect suspect = suspects.get(i);
                 Criminal criminal = suspect.getCriminal();
+                suspect.explain();
 
                 report.append(String.format("SUSPECT #%d\n", i + 1));
                 report.append("─".repeat(40)).append("\n");
@@ -152,15 +153,15 @@ public class ReportGenerator {
                 }
 
                 report.append("Known Locations:\n");
-                for (String location : criminal.getKnownLocations()) {
+                for (String location : criminal.getKnownLocationsView()) {
                     report.append("  • ").append(location).append("\n");
                 }
 
                 report.append("\nPrior Crimes:\n");
-                if (criminal.getPriorCrimes().isEmpty()) {
+                if (criminal.getPriorCrimesView().isEmpty()) {
                     report.append("  None on record\n");
                 } else {
-                    for (String crime : criminal.getPriorCrimes()) {
+                    for (String crime : criminal.getPriorCrimesView()) {
                         report.append("  • ").append(crime).append("\n");
                     }
                 }
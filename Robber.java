@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Robber Criminal Type
  */
 public class Robber extends Criminal {
 
+    private static final long serialVersionUID = -2475180220818272541L;
+
     private String targetType;
     private String weaponType;
     private boolean worksInGroup;
@@ -62,5 +69,24 @@ public class Robber extends Criminal {
     public void addStolenAmount(double amount) {
         this.totalStolen += amount;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(targetType);
+        out.writeString(weaponType);
+        out.writeBoolean(worksInGroup);
+        out.writeVarInt(robberyCount);
+        out.writeDouble(totalStolen);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        targetType = in.readString();
+        weaponType = in.readString();
+        worksInGroup = in.readBoolean();
+        robberyCount = in.readVarInt();
+        totalStolen = in.readDouble();
+    }
 }
 
@@ -0,0 +1,376 @@
+package engine;
+
+import models.CrimeScene;
+import java.util.*;
+
+/**
+ * Scene Linkage Engine
+ * Groups crime scenes that were probably committed by the same offender
+ * into series.
+ *
+ * Each added scene gets a MinHash signature (SceneSignature). Locality
+ * sensitive hashing splits the signature into bands; scenes that agree on
+ * every value of at least one band land in the same bucket and become
+ * candidate pairs, so a new scene is only compared with a few scenes
+ * instead of all of them. A candidate whose estimated similarity reaches
+ * the threshold is linked, and linked scenes are merged into one series
+ * (union-find), so series grow incrementally as scenes are added.
+ *
+ * Very common buckets are only probed at their most recent scenes, which
+ * keeps the work per scene bounded; older scenes in such a bucket have
+ * usually been merged into the same series already. Signatures are taken
+ * when a scene is added - later edits to the scene are not seen.
+ */
+public class SceneLinkageEngine {
+
+    // Bands x rows = signature size. With 12 bands of 3 rows a pair with
+    // similarity 0.6 shares a bucket with probability ~0.95, at 0.3 ~0.28.
+    private static final int BANDS = 12;
+    private static final int ROWS = SceneSignature.SIZE / BANDS;
+
+    // Scenes probed per bucket, most recent first
+    private static final int MAX_BUCKET_PROBES = 32;
+
+    private static final double DEFAULT_THRESHOLD = 0.6;
+
+    private final double threshold;
+    private final int minMatches;
+
+    private final List<CrimeScene> scenes;
+    private final List<int[]> signatures;
+    private final Map<CrimeScene, Integer> ordinals;
+    private final BandTable[] bands;
+
+    // Union-find over scene ordinals, plus a circular list through each
+    // series so its members can be listed without a scan
+    private int[] parent;
+    private int[] seriesSize;
+    private int[] nextInSeries;
+    private int seriesCount;
+
+    /**
+     * Bucket table for one band: open addressing from band key to the most
+     * recent scene, with each scene pointing at the previous one in its bucket
+     */
+    private static final class BandTable {
+        private int[] keys = new int[16];
+        private int[] heads = new int[16];    // scene ordinal + 1, 0 = empty slot
+        private int[] older = new int[16];    // per scene: previous scene + 1 in its bucket
+        private int used;
+
+        /**
+         * Most recent scene in a bucket, or -1
+         */
+        int first(int key) {
+            int mask = keys.length - 1;
+            for (int slot = key & mask; heads[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return heads[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Scene added to the same bucket before this one, or -1
+         */
+        int next(int ordinal) {
+            return older[ordinal] - 1;
+        }
+
+        void add(int key, int ordinal) {
+            if (ordinal >= older.length) {
+                older = Arrays.copyOf(older, Math.max(ordinal + 1, older.length * 2));
+            }
+            if ((used + 1) * 2 > keys.length) {
+                grow();
+            }
+
+            int mask = keys.length - 1;
+            int slot = key & mask;
+            while (heads[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (heads[slot] == 0) {
+                keys[slot] = key;
+                used++;
+            }
+            older[ordinal] = heads[slot];
+            heads[slot] = ordinal + 1;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldHeads = heads;
+            keys = new int[oldKeys.length * 2];
+            heads = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldHeads[i] != 0) {
+                    int slot = oldKeys[i] & mask;
+                    while (heads[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    heads[slot] = oldHeads[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructor with the default similarity threshold
+     */
+    public SceneLinkageEngine() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Constructor - scenes are linked when their estimated feature
+     * similarity (Jaccard, 0-1) is at least the threshold
+     */
+    public SceneLinkageEngine(double threshold) {
+        if (!(threshold > 0.0 && threshold <= 1.0)) {
+            throw new IllegalArgumentException("Threshold must be above 0 and at most 1: " + threshold);
+        }
+        this.threshold = threshold;
+        this.minMatches = (int) Math.ceil(threshold * SceneSignature.SIZE - 1e-9);
+
+        this.scenes = new ArrayList<>();
+        this.signatures = new ArrayList<>();
+        this.ordinals = new IdentityHashMap<>();
+        this.bands = new BandTable[BANDS];
+        for (int b = 0; b < BANDS; b++) {
+            bands[b] = new BandTable();
+        }
+        this.parent = new int[16];
+        this.seriesSize = new int[16];
+        this.nextInSeries = new int[16];
+    }
+
+    // ==================== ADDING SCENES ====================
+
+    /**
+     * Add a scene and link it to the series of similar scenes.
+     * Returns false if the scene was already added.
+     */
+    public synchronized boolean addScene(CrimeScene scene) {
+        if (scene == null) {
+            throw new IllegalArgumentException("Crime scene cannot be null");
+        }
+        if (ordinals.containsKey(scene)) {
+            return false;
+        }
+
+        int[] signature = SceneSignature.of(scene);
+        int ordinal = scenes.size();
+        scenes.add(scene);
+        signatures.add(signature);
+        ordinals.put(scene, ordinal);
+        makeSeries(ordinal);
+
+        for (int b = 0; b < BANDS; b++) {
+            int key = bandKey(signature, b);
+            BandTable table = bands[b];
+
+            int probes = 0;
+            for (int other = table.first(key); other >= 0 && probes < MAX_BUCKET_PROBES;
+                 other = table.next(other)) {
+                probes++;
+                if (find(other) != find(ordinal)
+                        && SceneSignature.matches(signature, signatures.get(other)) >= minMatches) {
+                    union(ordinal, other);
+                }
+            }
+            table.add(key, ordinal);
+        }
+        return true;
+    }
+
+    /**
+     * Add many scenes in order
+     */
+    public synchronized void addScenes(Collection<CrimeScene> batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Scenes cannot be null");
+        }
+        for (CrimeScene scene : batch) {
+            addScene(scene);
+        }
+    }
+
+    // ==================== SERIES ====================
+
+    /**
+     * Get the series a scene belongs to (just the scene if it is not
+     * linked to any other), in the order the scenes were added
+     */
+    public synchronized List<CrimeScene> getSeriesOf(CrimeScene scene) {
+        Integer ordinal = ordinals.get(scene);
+        if (ordinal == null) {
+            throw new IllegalArgumentException("Crime scene was not added: "
+                    + (scene == null ? null : scene.getSceneId()));
+        }
+
+        List<Integer> members = new ArrayList<>();
+        int member = ordinal;
+        do {
+            members.add(member);
+            member = nextInSeries[member];
+        } while (member != ordinal);
+        Collections.sort(members);
+
+        List<CrimeScene> series = new ArrayList<>(members.size());
+        for (int m : members) {
+            series.add(scenes.get(m));
+        }
+        return series;
+    }
+
+    /**
+     * Get all series with at least minSize scenes, largest first
+     */
+    public synchronized List<List<CrimeScene>> getSeries(int minSize) {
+        if (minSize < 1) {
+            throw new IllegalArgumentException("Minimum series size must be at least 1");
+        }
+
+        List<List<CrimeScene>> result = new ArrayList<>();
+        for (int i = 0; i < scenes.size(); i++) {
+            // Emit each series once, from its union-find root
+            if (find(i) == i && seriesSize[i] >= minSize) {
+                result.add(getSeriesOf(scenes.get(i)));
+            }
+        }
+
+        // Equal sizes keep the order of their first scenes
+        result.sort((a, b) -> {
+            int cmp = Integer.compare(b.size(), a.size());
+            return cmp != 0 ? cmp : Integer.compare(ordinals.get(a.get(0)), ordinals.get(b.get(0)));
+        });
+        return result;
+    }
+
+    /**
+     * Check if two added scenes are in the same series
+     */
+    public synchronized boolean inSameSeries(CrimeScene a, CrimeScene b) {
+        Integer first = ordinals.get(a);
+        Integer second = ordinals.get(b);
+        return first != null && second != null && find(first) == find(second);
+    }
+
+    /**
+     * Find added scenes similar to a scene (which need not be added),
+     * most similar first. Uses the same buckets and probe limit as adding.
+     */
+    public synchronized List<CrimeScene> findSimilar(CrimeScene scene) {
+        if (scene == null) {
+            throw new IllegalArgumentException("Crime scene cannot be null");
+        }
+
+        int[] signature = SceneSignature.of(scene);
+        Map<Integer, Integer> matches = new HashMap<>();
+        for (int b = 0; b < BANDS; b++) {
+            int probes = 0;
+            for (int other = bands[b].first(bandKey(signature, b)); other >= 0 && probes < MAX_BUCKET_PROBES;
+                 other = bands[b].next(other)) {
+                probes++;
+                if (scenes.get(other) != scene && !matches.containsKey(other)) {
+                    int equal = SceneSignature.matches(signature, signatures.get(other));
+                    if (equal >= minMatches) {
+                        matches.put(other, equal);
+                    }
+                }
+            }
+        }
+
+        List<Integer> similar = new ArrayList<>(matches.keySet());
+        similar.sort((x, y) -> {
+            int cmp = Integer.compare(matches.get(y), matches.get(x));
+            return cmp != 0 ? cmp : Integer.compare(x, y);
+        });
+        List<CrimeScene> result = new ArrayList<>(similar.size());
+        for (int other : similar) {
+            result.add(scenes.get(other));
+        }
+        return result;
+    }
+
+    /**
+     * Estimated feature similarity of two scenes (0-1)
+     */
+    public static double similarity(CrimeScene a, CrimeScene b) {
+        if (a == null || b == null) {
+            throw new IllegalArgumentException("Crime scenes cannot be null");
+        }
+        return SceneSignature.similarity(SceneSignature.of(a), SceneSignature.of(b));
+    }
+
+    public synchronized int getSceneCount() {
+        return scenes.size();
+    }
+
+    /**
+     * Number of series, counting unlinked scenes as series of one
+     */
+    public synchronized int getSeriesCount() {
+        return seriesCount;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    // ==================== UNION-FIND ====================
+
+    private void makeSeries(int ordinal) {
+        if (ordinal >= parent.length) {
+            int capacity = parent.length * 2;
+            parent = Arrays.copyOf(parent, capacity);
+            seriesSize = Arrays.copyOf(seriesSize, capacity);
+            nextInSeries = Arrays.copyOf(nextInSeries, capacity);
+        }
+        parent[ordinal] = ordinal;
+        seriesSize[ordinal] = 1;
+        nextInSeries[ordinal] = ordinal;
+        seriesCount++;
+    }
+
+    private int find(int ordinal) {
+        while (parent[ordinal] != ordinal) {
+            parent[ordinal] = parent[parent[ordinal]];
+            ordinal = parent[ordinal];
+        }
+        return ordinal;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return;
+        }
+        if (seriesSize[rootA] < seriesSize[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        seriesSize[rootA] += seriesSize[rootB];
+
+        // Splice the two circular member lists together
+        int next = nextInSeries[a];
+        nextInSeries[a] = nextInSeries[b];
+        nextInSeries[b] = next;
+        seriesCount--;
+    }
+
+    private static int bandKey(int[] signature, int band) {
+        long hash = band;
+        for (int r = band * ROWS; r < (band + 1) * ROWS; r++) {
+            hash = hash * 0x100000001b3L + signature[r];
+        }
+        return (int) SceneSignature.mix(hash);
+    }
+}
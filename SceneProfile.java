@@ -0,0 +1,143 @@
+package engine;
+
+import models.*;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Scene Profile
+ * Facts about a crime scene derived once per analysis: lower-cased keys,
+ * the scene's organization, its hour and day of crime and which evidence
+ * types are present.
+ * Evidence types are kept as a bitmask of Evidence type codes, so the
+ * per-criminal scoring loop never walks the evidence list.
+ */
+final class SceneProfile {
+
+    // Evidence type bits
+    static final int WEAPON = 1 << Evidence.typeCodeOf("Weapon");
+    static final int DIGITAL = 1 << Evidence.typeCodeOf("Digital");
+    static final int WITNESS = 1 << Evidence.typeCodeOf("Witness");
+    static final int SURVEILLANCE = 1 << Evidence.typeCodeOf("Surveillance");
+    static final int FINANCIAL = 1 << Evidence.typeCodeOf("Financial");
+
+    final CrimeScene scene;
+    final String sceneId;
+    final int crimeTypeCode;
+    final String crimeType;
+    final String crimeTypeLower;
+    final String location;
+    final int locationId;
+    final GeoPoint coordinates;
+    final int hourOfCrime;
+    final int dayOfCrime;
+    final boolean organized;
+    final boolean disorganized;
+    final String[] weaponTypes;
+    final int evidenceTypes;
+    final String victimProfile;
+
+    /**
+     * Constructor
+     */
+    SceneProfile(CrimeScene scene) {
+        this.scene = scene;
+        this.sceneId = scene.getSceneId();
+        this.crimeTypeCode = scene.getCrimeTypeCode();
+        this.crimeType = scene.getCrimeType();
+        this.crimeTypeLower = crimeType.toLowerCase();
+        this.location = scene.getLocation();
+        this.locationId = LocationDictionary.intern(location);
+        this.coordinates = scene.getCoordinates();
+
+        // ActivityHistogram slots, -1 when the time of crime is unknown
+        LocalDateTime time = scene.getTimeOfCrime();
+        this.hourOfCrime = time != null ? ActivityHistogram.hourOf(time) : -1;
+        this.dayOfCrime = time != null ? ActivityHistogram.dayOf(time) : -1;
+
+        String organization = scene.getCharacteristic("organization");
+        this.organized = organization != null && organization.equalsIgnoreCase("organized");
+        this.disorganized = organization != null && organization.equalsIgnoreCase("disorganized");
+
+        List<String> weapons = new ArrayList<>();
+        int types = 0;
+
+        for (Evidence evidence : scene.getEvidenceView()) {
+            int code = Evidence.typeCodeOf(evidence.getType());
+            if (code < 0) {
+                continue;
+            }
+            types |= 1 << code;
+
+            if ((1 << code) == WEAPON) {
+                String weaponType = evidence.getAttribute("type");
+                if (weaponType != null && !weapons.contains(weaponType.toLowerCase())) {
+                    weapons.add(weaponType.toLowerCase());
+                }
+            }
+        }
+
+        this.weaponTypes = weapons.toArray(new String[0]);
+        this.evidenceTypes = types;
+
+        String victim = scene.getVictimProfile();
+        this.victimProfile = victim == null || victim.trim().isEmpty() ? null : victim.toLowerCase();
+    }
+
+    /**
+     * Check if any of the given evidence type bits is present
+     */
+    boolean hasEvidence(int bits) {
+        return (evidenceTypes & bits) != 0;
+    }
+
+    /**
+     * Check if any weapon evidence matches a lower-cased weapon preference
+     */
+    boolean weaponMatches(String preference) {
+        if (preference == null) {
+            return false;
+        }
+        for (String weaponType : weaponTypes) {
+            if (preference.contains(weaponType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same as weaponMatches for a preference in any case, without copying it
+     */
+    boolean weaponMatchesIgnoreCase(String preference) {
+        if (preference == null) {
+            return false;
+        }
+        for (String weaponType : weaponTypes) {
+            if (containsIgnoreCase(preference, weaponType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if the victim profile mentions a victim type in any case
+     */
+    boolean victimMatches(String victimType) {
+        return victimProfile != null && victimType != null && containsIgnoreCase(victimProfile, victimType);
+    }
+
+    /**
+     * Case-insensitive contains without lower-casing either string
+     */
+    static boolean containsIgnoreCase(String text, String part) {
+        int last = text.length() - part.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
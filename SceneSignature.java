@@ -0,0 +1,188 @@
+package engine;
+
+import models.*;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Scene Signature
+ * MinHash signature of a crime scene's features, used to find scenes that
+ * were probably committed by the same offender.
+ *
+ * A scene is reduced to a set of hashed tokens: crime type, evidence types
+ * and weapon types, characteristics (key and value), victim profile words,
+ * location, a coarse area cell for located scenes, and the time-of-day band
+ * and day of week of the crime. The fraction of equal signature positions
+ * of two scenes estimates the Jaccard similarity of their token sets.
+ * Tokens are hashed straight from the scene's strings without building
+ * token strings.
+ */
+final class SceneSignature {
+
+    // Signature length (number of MinHash functions)
+    static final int SIZE = 36;
+
+    // Token kinds, mixed into each token's hash
+    private static final int TYPE = 1;
+    private static final int EVIDENCE = 2;
+    private static final int WEAPON = 3;
+    private static final int CHARACTERISTIC = 4;
+    private static final int VICTIM = 5;
+    private static final int LOCATION = 6;
+    private static final int AREA = 7;
+    private static final int TIME_OF_DAY = 8;
+    private static final int DAY_OF_WEEK = 9;
+
+    // Area cell size in degrees (about 5.5 km north-south) and hours per
+    // time-of-day band
+    private static final double AREA_CELL_DEGREES = 0.05;
+    private static final int HOURS_PER_BAND = 3;
+
+    // Victim profile words shorter than this are skipped ("in", "of", ages)
+    private static final int MIN_WORD_LENGTH = 3;
+
+    private static final long[] SEEDS = buildSeeds();
+
+    private SceneSignature() {
+    }
+
+    /**
+     * Compute the signature of a scene
+     */
+    static int[] of(CrimeScene scene) {
+        int[] signature = new int[SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        add(signature, text(TYPE, scene.getCrimeType()));
+        add(signature, text(LOCATION, scene.getLocation()));
+
+        for (Evidence evidence : scene.getEvidenceView()) {
+            add(signature, text(EVIDENCE, evidence.getType()));
+            String weapon = evidence.getAttribute("type");
+            if (weapon != null && evidence.getType().equalsIgnoreCase("Weapon")) {
+                add(signature, text(WEAPON, weapon));
+            }
+        }
+
+        for (Map.Entry<String, String> entry : scene.getSceneCharacteristicsView().entrySet()) {
+            long hash = fnv(fnv(seed(CHARACTERISTIC), entry.getKey(), 0, entry.getKey().length()), "=", 0, 1);
+            String value = entry.getValue();
+            add(signature, mix(value != null ? fnv(hash, value, 0, value.length()) : hash));
+        }
+
+        String victim = scene.getVictimProfile();
+        if (victim != null) {
+            addWords(signature, victim);
+        }
+
+        GeoPoint coordinates = scene.getCoordinates();
+        if (coordinates != null) {
+            long row = (long) Math.floor(coordinates.getLatitude() / AREA_CELL_DEGREES);
+            long column = (long) Math.floor(coordinates.getLongitude() / AREA_CELL_DEGREES);
+            add(signature, number(AREA, (row << 32) ^ column));
+        }
+
+        LocalDateTime time = scene.getTimeOfCrime();
+        if (time != null) {
+            add(signature, number(TIME_OF_DAY, time.getHour() / HOURS_PER_BAND));
+            add(signature, number(DAY_OF_WEEK, time.getDayOfWeek().getValue()));
+        }
+
+        return signature;
+    }
+
+    /**
+     * Estimated Jaccard similarity: fraction of equal positions
+     */
+    static double similarity(int[] a, int[] b) {
+        return matches(a, b) / (double) SIZE;
+    }
+
+    /**
+     * Number of equal positions
+     */
+    static int matches(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return equal;
+    }
+
+    // ==================== HASHING ====================
+
+    /**
+     * Fold one token into the signature: keep the minimum per function
+     */
+    private static void add(int[] signature, long token) {
+        for (int i = 0; i < SIZE; i++) {
+            int value = (int) (mix(token ^ SEEDS[i]) >>> 32);
+            if (value < signature[i]) {
+                signature[i] = value;
+            }
+        }
+    }
+
+    /**
+     * Add one token per word of the victim profile
+     */
+    private static void addWords(int[] signature, String text) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                if (i - start >= MIN_WORD_LENGTH) {
+                    add(signature, mix(fnv(seed(VICTIM), text, start, i)));
+                }
+                start = -1;
+            }
+        }
+    }
+
+    private static long text(int kind, String value) {
+        return mix(fnv(seed(kind), value, 0, value.length()));
+    }
+
+    private static long number(int kind, long value) {
+        return mix(seed(kind) ^ mix(value));
+    }
+
+    private static long seed(int kind) {
+        return 0xcbf29ce484222325L ^ kind;
+    }
+
+    /**
+     * FNV-1a over the lower-cased chars of text[from, to)
+     */
+    private static long fnv(long hash, String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            hash ^= Character.toLowerCase(text.charAt(i));
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 64-bit finalizer (MurmurHash3 fmix64)
+     */
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long[] buildSeeds() {
+        long[] seeds = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            seeds[i] = mix(0x9E3779B97F4A7C15L * (i + 1));
+        }
+        return seeds;
+    }
+}
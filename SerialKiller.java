@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Serial Killer Criminal Type
  */
 public class SerialKiller extends Criminal {
 
+    private static final long serialVersionUID = -8952005852410023257L;
+
     private String signature;
     private int victimCount;
     private String victimType;
@@ -65,4 +72,23 @@ public class SerialKiller extends Criminal {
     public void incrementVictimCount() {
         this.victimCount++;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(signature);
+        out.writeVarInt(victimCount);
+        out.writeString(victimType);
+        out.writeBoolean(organized);
+        out.writeString(coolingOffPeriod);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        signature = in.readString();
+        victimCount = in.readVarInt();
+        victimType = in.readString();
+        organized = in.readBoolean();
+        coolingOffPeriod = in.readString();
+    }
 }
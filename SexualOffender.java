@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Sexual Offender Criminal Type
  */
 public class SexualOffender extends Criminal {
 
+    private static final long serialVersionUID = 4971140078821067941L;
+
     private String offenseType;
     private int victimCount;
     private String targetDemographic;
@@ -61,5 +68,24 @@ public class SexualOffender extends Criminal {
     public void incrementVictimCount() {
         this.victimCount++;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(offenseType);
+        out.writeVarInt(victimCount);
+        out.writeString(targetDemographic);
+        out.writeBoolean(hasReoffended);
+        out.writeString(huntingGround);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        offenseType = in.readString();
+        victimCount = in.readVarInt();
+        targetDemographic = in.readString();
+        hasReoffended = in.readBoolean();
+        huntingGround = in.readString();
+    }
 }
 
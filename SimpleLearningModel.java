@@ -1,5 +1,6 @@
 package engine;
 
+import models.Feature;
 import models.Suspect;
 import java.io.*;
 import java.util.*;
@@ -14,6 +15,12 @@ public class SimpleLearningModel {
     // Feature weights
     private Map<String, Double> weights;
 
+    // Bumped on every weight change so cached analyses can tell they are stale
+    private long version;
+
+    // Notified after weights change
+    private final List<WeightChangeListener> listeners = new ArrayList<>();
+
     // Weight constraints
     private static final double MIN_WEIGHT = 5.0;
     private static final double MAX_WEIGHT = 50.0;
@@ -71,6 +78,24 @@ public class SimpleLearningModel {
         return new LinkedHashMap<>(weights);
     }
 
+    /**
+     * Get current weights indexed by Feature
+     */
+    public double[] getFeatureWeights() {
+        double[] vector = new double[Feature.count()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = getWeight(Feature.at(i).name());
+        }
+        return vector;
+    }
+
+    /**
+     * Get the weight version - changes whenever any weight changes
+     */
+    public long getVersion() {
+        return version;
+    }
+
     /**
      * Manually set a weight
      */
@@ -80,6 +105,33 @@ public class SimpleLearningModel {
                     String.format("Weight must be between %.1f and %.1f", MIN_WEIGHT, MAX_WEIGHT));
         }
         weights.put(feature, weight);
+        weightsChanged();
+    }
+
+    // ==================== LISTENERS ====================
+
+    /**
+     * Add weight change listener
+     */
+    public void addWeightListener(WeightChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove weight change listener
+     */
+    public void removeWeightListener(WeightChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void weightsChanged() {
+        version++;
+        for (WeightChangeListener listener : new ArrayList<>(listeners)) {
+            listener.weightsChanged(this);
+        }
     }
 
     // ==================== STATISTICS ====================
@@ -131,6 +183,7 @@ public class SimpleLearningModel {
      */
     public void resetToDefaults() {
         initializeDefaultWeights();
+        weightsChanged();
         System.out.println("✓ Analysis model reset to default weights");
     }
 }
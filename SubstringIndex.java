@@ -0,0 +1,121 @@
+package database;
+
+import java.util.*;
+
+/**
+ * Substring Index
+ * Trigram index for case-insensitive "contains" searches on a text key.
+ * Short search terms fall back to scanning the distinct keys.
+ */
+class SubstringIndex<T> {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<T>> grams;
+    private final Map<String, Set<T>> keys;
+    private final Map<T, String> itemKeys;
+
+    /**
+     * Constructor
+     */
+    SubstringIndex() {
+        this.grams = new HashMap<>();
+        this.keys = new HashMap<>();
+        this.itemKeys = new HashMap<>();
+    }
+
+    /**
+     * Index an item under a key. A null key is not indexed, so no search
+     * finds the item.
+     */
+    void add(String key, T item) {
+        if (key == null) {
+            return;
+        }
+        String lower = key.toLowerCase();
+        itemKeys.put(item, lower);
+        keys.computeIfAbsent(lower, k -> new HashSet<>()).add(item);
+
+        for (int i = 0; i + GRAM <= lower.length(); i++) {
+            grams.computeIfAbsent(lower.substring(i, i + GRAM), g -> new HashSet<>()).add(item);
+        }
+    }
+
+    /**
+     * Remove an item using the key it was indexed under
+     */
+    void remove(T item) {
+        String lower = itemKeys.remove(item);
+        if (lower == null) {
+            return;
+        }
+
+        removeFrom(keys, lower, item);
+        for (int i = 0; i + GRAM <= lower.length(); i++) {
+            removeFrom(grams, lower.substring(i, i + GRAM), item);
+        }
+    }
+
+    /**
+     * Find items whose key contains the term (case-insensitive)
+     */
+    List<T> search(String term) {
+        String searchTerm = term.toLowerCase();
+        List<T> results = new ArrayList<>();
+
+        if (searchTerm.length() < GRAM) {
+            for (Map.Entry<String, Set<T>> entry : keys.entrySet()) {
+                if (entry.getKey().contains(searchTerm)) {
+                    results.addAll(entry.getValue());
+                }
+            }
+            return results;
+        }
+
+        // Verify candidates from the rarest trigram of the term
+        Set<T> candidates = null;
+        for (int i = 0; i + GRAM <= searchTerm.length(); i++) {
+            Set<T> posting = grams.get(searchTerm.substring(i, i + GRAM));
+            if (posting == null) {
+                return results;
+            }
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+
+        for (T item : candidates) {
+            if (itemKeys.get(item).contains(searchTerm)) {
+                results.add(item);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Get items indexed under an exact key (case-insensitive)
+     */
+    List<T> get(String key) {
+        Set<T> items = keys.get(key.toLowerCase());
+        return items == null ? new ArrayList<>() : new ArrayList<>(items);
+    }
+
+    /**
+     * Clear the index
+     */
+    void clear() {
+        grams.clear();
+        keys.clear();
+        itemKeys.clear();
+    }
+
+    private void removeFrom(Map<String, Set<T>> map, String key, T item) {
+        Set<T> set = map.get(key);
+        if (set != null) {
+            set.remove(item);
+            if (set.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package models;
 
 import models.criminals.Criminal;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Suspect Model
@@ -11,17 +12,32 @@ public class Suspect implements Comparable<Suspect> {
 
     private Criminal criminal;
     private double probabilityScore;
-    private Map<String, Double> featureScores;
+    private boolean scoreDirty;
+
+    // Feature scores indexed by Feature.ordinal(), allocated on first score
+    private double[] featureScores;
+    private int featureMask;
+
+    // Multiplier behind each score (score = weight x multiplier), NaN if fixed
+    private double[] multipliers;
+
+    // Scores for names outside the Feature index (rare)
+    private Map<String, Double> extraScores;
+
     private List<String> matchingFactors;
     private String reasoning;
 
+    // Builds reasoning and matching factors on first use (phase two)
+    private Consumer<Suspect> explainer;
+
     /**
      * Constructor
      */
     public Suspect(Criminal criminal) {
         this.criminal = criminal;
         this.probabilityScore = 0.0;
-        this.featureScores = new HashMap<>();
+        this.scoreDirty = false;
+        this.featureMask = 0;
         this.matchingFactors = new ArrayList<>();
         this.reasoning = "";
     }
@@ -33,18 +49,50 @@ public class Suspect implements Comparable<Suspect> {
     }
 
     public double getProbabilityScore() {
+        if (scoreDirty) {
+            recalculateProbability();
+        }
         return probabilityScore;
     }
 
+    /**
+     * Get feature scores as a map (built on demand for GUI and reports)
+     */
     public Map<String, Double> getFeatureScores() {
-        return new HashMap<>(featureScores);
+        Map<String, Double> scores = new HashMap<>();
+        for (int i = 0; i < Feature.count(); i++) {
+            if ((featureMask & (1 << i)) != 0) {
+                scores.put(Feature.at(i).name(), featureScores[i]);
+            }
+        }
+
+        if (extraScores != null) {
+            scores.putAll(extraScores);
+        }
+        return scores;
+    }
+
+    /**
+     * Get score for a single feature (0 if not scored)
+     */
+    public double getFeatureScore(Feature feature) {
+        return hasFeature(feature) ? featureScores[feature.ordinal()] : 0.0;
+    }
+
+    /**
+     * Check if a feature has been scored
+     */
+    public boolean hasFeature(Feature feature) {
+        return (featureMask & (1 << feature.ordinal())) != 0;
     }
 
     public List<String> getMatchingFactors() {
+        explain();
         return new ArrayList<>(matchingFactors);
     }
 
     public String getReasoning() {
+        explain();
         return reasoning;
     }
 
@@ -53,9 +101,68 @@ public class Suspect implements Comparable<Suspect> {
     /**
      * Add feature score
      */
+    public void addFeatureScore(Feature feature, double score) {
+        setFeatureScore(feature, score, Double.NaN);
+    }
+
+    /**
+     * Add feature score as model weight x multiplier, so it can follow
+     * later weight changes
+     */
+    public void addFeatureScore(Feature feature, double weight, double multiplier) {
+        setFeatureScore(feature, weight * multiplier, multiplier);
+    }
+
+    /**
+     * Recompute weighted feature scores from new model weights
+     * (indexed by Feature). Fixed scores are left as they are.
+     */
+    public void applyWeights(double[] weights) {
+        if (multipliers == null) {
+            return;
+        }
+
+        for (int i = 0; i < multipliers.length; i++) {
+            if ((featureMask & (1 << i)) != 0 && !Double.isNaN(multipliers[i])) {
+                featureScores[i] = weights[i] * multipliers[i];
+            }
+        }
+        scoreDirty = true;
+    }
+
+    private void setFeatureScore(Feature feature, double score, double multiplier) {
+        if (featureScores == null) {
+            featureScores = new double[Feature.count()];
+        }
+        int i = feature.ordinal();
+        featureScores[i] = score;
+        featureMask |= 1 << i;
+
+        if (!Double.isNaN(multiplier) && multipliers == null) {
+            multipliers = new double[Feature.count()];
+            Arrays.fill(multipliers, Double.NaN);
+        }
+        if (multipliers != null) {
+            multipliers[i] = multiplier;
+        }
+        scoreDirty = true;
+    }
+
+    /**
+     * Add feature score by weight key
+     */
     public void addFeatureScore(String feature, double score) {
-        featureScores.put(feature, score);
-        recalculateProbability();
+        Feature known = Feature.fromName(feature);
+        if (known != null) {
+            addFeatureScore(known, score);
+            return;
+        }
+
+        if (extraScores == null) {
+            extraScores = new HashMap<>();
+        }
+        extraScores.put(feature, score);
+        scoreDirty = true;
     }
 
     /**
@@ -67,6 +174,31 @@ public class Suspect implements Comparable<Suspect> {
         }
     }
 
+    /**
+     * Set the callback that builds reasoning on demand
+     */
+    public void setExplainer(Consumer<Suspect> explainer) {
+        this.explainer = explainer;
+    }
+
+    /**
+     * Build reasoning and matching factors if not done yet
+     */
+    public void explain() {
+        if (explainer != null) {
+            Consumer<Suspect> pending = explainer;
+            explainer = null;
+            pending.accept(this);
+        }
+    }
+
+    /**
+     * Check if reasoning is still pending
+     */
+    public boolean isExplained() {
+        return explainer == null;
+    }
+
     /**
      * Set reasoning
      */
@@ -76,23 +208,35 @@ public class Suspect implements Comparable<Suspect> {
 
     /**
      * Recalculate total probability
+     * Runs once per batch of feature updates rather than on every insert.
      */
     private void recalculateProbability() {
         double total = 0.0;
-        for (double score : featureScores.values()) {
-            total += score;
+        for (int i = 0; i < Feature.count(); i++) {
+            if ((featureMask & (1 << i)) != 0) {
+                total += featureScores[i];
+            }
         }
+
+        if (extraScores != null) {
+            for (double score : extraScores.values()) {
+                total += score;
+            }
+        }
+
         this.probabilityScore = Math.min(100.0, total);
+        this.scoreDirty = false;
     }
 
     /**
      * Get confidence level
      */
     public String getConfidence() {
-        if (probabilityScore >= 80) return "VERY HIGH";
-        if (probabilityScore >= 60) return "HIGH";
-        if (probabilityScore >= 40) return "MEDIUM";
-        if (probabilityScore >= 20) return "LOW";
+        double score = getProbabilityScore();
+        if (score >= 80) return "VERY HIGH";
+        if (score >= 60) return "HIGH";
+        if (score >= 40) return "MEDIUM";
+        if (score >= 20) return "LOW";
         return "VERY LOW";
     }
 
@@ -100,14 +244,14 @@ public class Suspect implements Comparable<Suspect> {
 
     @Override
     public int compareTo(Suspect other) {
-        return Double.compare(other.probabilityScore, this.probabilityScore);
+        return Double.compare(other.getProbabilityScore(), this.getProbabilityScore());
     }
 
     @Override
     public String toString() {
         return String.format("%s - %.1f%% match (%s confidence)",
                 criminal.getName(),
-                probabilityScore,
+                getProbabilityScore(),
                 getConfidence());
     }
 }
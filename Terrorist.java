@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Terrorist Criminal Type
  */
 public class Terrorist extends Criminal {
 
+    private static final long serialVersionUID = 8880245199002603270L;
+
     private String ideology;
     private String affiliation;
     private boolean partOfCell;
@@ -61,5 +68,24 @@ public class Terrorist extends Criminal {
     public void incrementAttackCount() {
         this.attackCount++;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(ideology);
+        out.writeString(affiliation);
+        out.writeBoolean(partOfCell);
+        out.writeString(targetType);
+        out.writeVarInt(attackCount);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        ideology = in.readString();
+        affiliation = in.readString();
+        partOfCell = in.readBoolean();
+        targetType = in.readString();
+        attackCount = in.readVarInt();
+    }
 }
 
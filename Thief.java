@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Thief Criminal Type
  */
 public class Thief extends Criminal {
 
+    private static final long serialVersionUID = 5176832163692164150L;
+
     private String specialization;
     private double totalStolenValue;
     private String preferredTarget;
@@ -52,5 +59,22 @@ public class Thief extends Criminal {
     public void addStolenValue(double value) {
         this.totalStolenValue += value;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(specialization);
+        out.writeDouble(totalStolenValue);
+        out.writeString(preferredTarget);
+        out.writeBoolean(worksSolo);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        specialization = in.readString();
+        totalStolenValue = in.readDouble();
+        preferredTarget = in.readString();
+        worksSolo = in.readBoolean();
+    }
 }
 
@@ -0,0 +1,162 @@
+package engine;
+
+import models.Suspect;
+import java.util.*;
+
+/**
+ * Top Suspect Collector
+ * Keeps the best K suspects in a bounded min-heap while scoring streams by.
+ * Ties are broken by arrival order so results match a stable full sort.
+ * The heap grows as suspects arrive, so a large K costs nothing up front.
+ */
+class TopSuspectCollector {
+
+    private static final int INITIAL_SLOTS = 16;
+
+    private final int capacity;
+    private Suspect[] heap;
+    private long[] order;
+    private int size;
+    private long seen;
+
+    /**
+     * Constructor
+     */
+    TopSuspectCollector(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
+        }
+        this.capacity = capacity;
+        this.heap = new Suspect[Math.min(capacity, INITIAL_SLOTS)];
+        this.order = new long[heap.length];
+        this.size = 0;
+        this.seen = 0;
+    }
+
+    /**
+     * Offer a scored suspect, keeping it only if it ranks in the top K
+     */
+    void offer(Suspect suspect) {
+        offer(suspect, seen++);
+    }
+
+    /**
+     * Offer a suspect with an explicit arrival position (for merging
+     * partial results that were collected out of order)
+     */
+    void offer(Suspect suspect, long seq) {
+        if (capacity == 0) {
+            return;
+        }
+
+        if (size < capacity) {
+            if (size == heap.length) {
+                grow();
+            }
+            heap[size] = suspect;
+            order[size] = seq;
+            siftUp(size++);
+        } else if (ranksAbove(suspect.getProbabilityScore(), seq, 0)) {
+            heap[0] = suspect;
+            order[0] = seq;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Check if a score at a given position would be kept
+     * Lets callers skip building a Suspect that would be dropped.
+     */
+    boolean accepts(double score, long seq) {
+        return capacity > 0 && (size < capacity || ranksAbove(score, seq, 0));
+    }
+
+    /**
+     * Offer every kept suspect to another collector
+     */
+    void drainInto(TopSuspectCollector other) {
+        for (int i = 0; i < size; i++) {
+            other.offer(heap[i], order[i]);
+        }
+    }
+
+    /**
+     * Get kept suspects, best first
+     */
+    List<Suspect> toSortedList() {
+        Integer[] idx = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            idx[i] = i;
+        }
+
+        Arrays.sort(idx, (a, b) -> {
+            int cmp = Double.compare(heap[b].getProbabilityScore(), heap[a].getProbabilityScore());
+            return cmp != 0 ? cmp : Long.compare(order[a], order[b]);
+        });
+
+        List<Suspect> result = new ArrayList<>(size);
+        for (Integer i : idx) {
+            result.add(heap[i]);
+        }
+        return result;
+    }
+
+    // ==================== HEAP OPERATIONS ====================
+
+    /**
+     * True if (score, seq) ranks above the heap entry at position i
+     */
+    private boolean ranksAbove(double score, long seq, int i) {
+        int cmp = Double.compare(score, heap[i].getProbabilityScore());
+        return cmp > 0 || (cmp == 0 && seq < order[i]);
+    }
+
+    private void grow() {
+        int length = (int) Math.min(capacity, heap.length * 2L);
+        heap = Arrays.copyOf(heap, length);
+        order = Arrays.copyOf(order, length);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            // Root holds the lowest-ranked entry
+            if (!ranksAbove(heap[parent].getProbabilityScore(), order[parent], i)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+
+            int lowest = left;
+            int right = left + 1;
+            if (right < size && ranksAbove(heap[left].getProbabilityScore(), order[left], right)) {
+                lowest = right;
+            }
+
+            if (!ranksAbove(heap[i].getProbabilityScore(), order[i], lowest)) {
+                break;
+            }
+            swap(i, lowest);
+            i = lowest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Suspect s = heap[a];
+        heap[a] = heap[b];
+        heap[b] = s;
+
+        long o = order[a];
+        order[a] = order[b];
+        order[b] = o;
+    }
+}
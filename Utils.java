@@ -1,6 +1,7 @@
 package utils;
 
 import database.CriminalDatabase;
+import database.DatabaseJournal;
 import models.*;
 import models.criminals.Criminal;
 
@@ -15,50 +16,67 @@ public class Utils {
 
     // ==================== ID GENERATION ====================
 
-    private static int criminalCounter = 1;
-    private static int sceneCounter = 1;
-    private static int evidenceCounter = 1;
+    // Shared by every thread; see IdAllocator for reserving blocks of IDs
+    private static final IdAllocator ID_ALLOCATOR = new IdAllocator();
+
+    /**
+     * Get the shared ID allocator
+     */
+    public static IdAllocator getIdAllocator() {
+        return ID_ALLOCATOR;
+    }
 
     /**
      * Generate unique criminal ID
      */
     public static String generateCriminalId() {
-        return String.format("CRIM%05d", criminalCounter++);
+        return ID_ALLOCATOR.nextCriminalId();
     }
 
     /**
      * Generate unique scene ID
      */
     public static String generateSceneId() {
-        return String.format("SCENE%04d", sceneCounter++);
+        return ID_ALLOCATOR.nextSceneId();
     }
 
     /**
-     * Generate unique evidence ID
+     * Generate unique evidence ID (numbered per scene)
      */
     public static String generateEvidenceId(String sceneId) {
-        return String.format("%s-E%03d", sceneId, evidenceCounter++);
+        return ID_ALLOCATOR.nextEvidenceId(sceneId);
     }
 
     /**
-     * Reset evidence counter for new scene
+     * Reset evidence counter
+     * Evidence is numbered per scene, so this restarts every scene's
+     * numbering; prefer resetEvidenceCounter(sceneId).
      */
     public static void resetEvidenceCounter() {
-        evidenceCounter = 1;
+        ID_ALLOCATOR.resetEvidenceSequences();
+    }
+
+    /**
+     * Restart evidence numbering for a scene
+     */
+    public static void resetEvidenceCounter(String sceneId) {
+        ID_ALLOCATOR.resetEvidenceSequence(sceneId);
     }
 
     /**
      * Set criminal counter (for loading saved data)
+     * Only moves the counter forward, so IDs already in use are not reissued.
      */
     public static void setCriminalCounter(int count) {
-        criminalCounter = count;
+        ID_ALLOCATOR.advanceCriminalNumber(count);
     }
 
     /**
      * Set scene counter (for loading saved data)
+     * Only moves the counter forward, so IDs already in use are not reissued.
      */
     public static void setSceneCounter(int count) {
-        sceneCounter = count;
+        ID_ALLOCATOR.advanceSceneNumber(count);
     }
 
     // ==================== VALIDATION ====================
@@ -168,13 +186,21 @@ public class Utils {
     // ==================== DATA PERSISTENCE ====================
 
     private static final String DATA_FILE = "criminal_database.dat";
+    private static final String LOG_FILE = "criminal_database.log";
 
     /**
      * Save all database data to file
+     * The first save writes a full snapshot and starts the change journal;
+     * later saves only flush the changes made since.
      */
     public static boolean saveAllData(CriminalDatabase database) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(DATA_FILE))) {
-            oos.writeObject(database);
+        try {
+            DatabaseJournal journal = database.getJournal();
+            if (journal == null) {
+                DatabaseJournal.create(database, new File(DATA_FILE), new File(LOG_FILE));
+            } else {
+                journal.commit();
+            }
             System.out.println("✓ Database saved successfully");
             return true;
         } catch (IOException e) {
@@ -184,24 +210,35 @@ public class Utils {
     }
 
     /**
-     * Load all database data from file
+     * Save all database data and stop journaling it
+     * Changes still in the journal are folded into the snapshot, so the
+     * next load does not have to replay them.
      */
-    public static boolean loadAllData(CriminalDatabase database) {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(DATA_FILE))) {
-            CriminalDatabase loaded = (CriminalDatabase) ois.readObject();
-
-            // Copy data to provided database
-            for (Criminal criminal : loaded.getAllCriminals()) {
-                database.addCriminal(criminal);
-            }
-
-            for (CrimeScene scene : loaded.getAllCrimeScenes()) {
-                database.addCrimeScene(scene);
+    public static boolean closeAllData(CriminalDatabase database) {
+        try {
+            DatabaseJournal journal = database.getJournal();
+            if (journal == null) {
+                journal = DatabaseJournal.create(database, new File(DATA_FILE), new File(LOG_FILE));
             }
+            journal.close();
+            System.out.println("✓ Database saved successfully");
+            return true;
+        } catch (IOException e) {
+            System.err.println("❌ Error saving database: " + e.getMessage());
+            return false;
+        }
+    }
 
+    /**
+     * Load all database data from file
+     * Replays the change journal on top of the snapshot and keeps journaling.
+     */
+    public static boolean loadAllData(CriminalDatabase database) {
+        try {
+            DatabaseJournal.open(database, new File(DATA_FILE), new File(LOG_FILE));
             System.out.println("✓ Database loaded successfully");
             return true;
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException | RuntimeException e) {
             System.err.println("⚠ Could not load saved data: " + e.getMessage());
             return false;
         }
@@ -211,27 +248,28 @@ public class Utils {
      * Check if saved data exists
      */
     public static boolean savedDataExists() {
-        File file = new File(DATA_FILE);
-        return file.exists() && file.length() > 0;
+        return new File(DATA_FILE).length() > 0 || new File(LOG_FILE).length() > 0;
     }
 
     /**
      * Delete saved data file
      */
     public static boolean deleteSavedData() {
-        File file = new File(DATA_FILE);
-        if (file.exists()) {
-            return file.delete();
+        boolean deleted = false;
+        for (String name : new String[]{DATA_FILE, LOG_FILE}) {
+            File file = new File(name);
+            if (file.exists()) {
+                deleted |= file.delete();
+            }
         }
-        return false;
+        return deleted;
     }
 
     /**
      * Get saved data file size
      */
     public static long getSavedDataSize() {
-        File file = new File(DATA_FILE);
-        return file.exists() ? file.length() : 0;
+        return new File(DATA_FILE).length() + new File(LOG_FILE).length();
     }
 }
 
@@ -0,0 +1,650 @@
+package database;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Versioned Store
+ * Concurrent ID -> value map built from copy-on-write segments.
+ *
+ * Keys hash to segments, and each segment belongs to one of a fixed set
+ * of stripe locks. A writer locks its stripe, copies only its segment and
+ * publishes a new root that shares every other segment, so writers on
+ * different stripes do not block each other and readers never lock.
+ *
+ * Every root is an immutable version of the whole store: snapshot() hands
+ * it out as a read-only list without copying the values, and the list
+ * never changes afterwards. Segments split as the store grows, so the
+ * copy made per write stays small. The list finds a value's position from
+ * its key, so indexOf and contains are lookups rather than scans.
+ */
+final class VersionedStore<V> {
+
+    private static final int STRIPES = 64;
+
+    // Split segments when they average more than this many entries
+    private static final int MAX_SEGMENT_SIZE = 512;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final AtomicReference<Root<V>> root;
+
+    // Value type and the key each value is stored under
+    private final Class<V> type;
+    private final Function<V, String> keyOf;
+
+    VersionedStore(Class<V> type, Function<V, String> keyOf) {
+        this.type = type;
+        this.keyOf = keyOf;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.root = new AtomicReference<>(Root.empty(STRIPES));
+    }
+
+    // ==================== READS ====================
+
+    V get(String key) {
+        if (key == null) {
+            return null;
+        }
+        Root<V> current = root.get();
+        return current.segments[current.segmentOf(key)].get(key);
+    }
+
+    boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    int size() {
+        return root.get().size;
+    }
+
+    /**
+     * Immutable view of every value at this moment
+     */
+    List<V> snapshot() {
+        return root.get().view(this);
+    }
+
+    // ==================== LOCKING ====================
+
+    /**
+     * Run a write to one key under that key's stripe lock
+     */
+    void withLock(String key, Runnable action) {
+        ReentrantLock lock = stripes[stripeOf(key)];
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run a write to several keys under all of their stripe locks,
+     * taken in a fixed order so concurrent batches cannot deadlock
+     */
+    void withLocks(Collection<String> keys, Runnable action) {
+        boolean[] needed = new boolean[STRIPES];
+        for (String key : keys) {
+            needed[stripeOf(key)] = true;
+        }
+        lockAndRun(needed, action);
+    }
+
+    /**
+     * Run a write to the whole store under every stripe lock
+     */
+    void withAllLocks(Runnable action) {
+        boolean[] needed = new boolean[STRIPES];
+        Arrays.fill(needed, true);
+        lockAndRun(needed, action);
+    }
+
+    private void lockAndRun(boolean[] needed, Runnable action) {
+        int locked = 0;
+        try {
+            for (; locked < STRIPES; locked++) {
+                if (needed[locked]) {
+                    stripes[locked].lock();
+                }
+            }
+            action.run();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                if (needed[i]) {
+                    stripes[i].unlock();
+                }
+            }
+        }
+    }
+
+    private static int stripeOf(String key) {
+        return hash(key) & (STRIPES - 1);
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    // ==================== WRITES (caller holds the stripe locks) ====================
+
+    /**
+     * Store a value, returning the one it replaced
+     */
+    V put(String key, V value) {
+        checkLocked(key);
+        Root<V> current = root.get();
+        int index = current.segmentOf(key);
+        Segment<V> segment = current.segments[index];
+        publish(index, segment, segment.with(key, value));
+        maybeSplit();
+        return segment.get(key);
+    }
+
+    /**
+     * Remove a key, returning its value
+     */
+    V remove(String key) {
+        checkLocked(key);
+        Root<V> current = root.get();
+        int index = current.segmentOf(key);
+        Segment<V> segment = current.segments[index];
+        V previous = segment.get(key);
+        if (previous != null) {
+            publish(index, segment, segment.without(key));
+        }
+        return previous;
+    }
+
+    /**
+     * Store many values as one new version: readers see all or none
+     */
+    void putAll(Map<String, V> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        for (String key : entries.keySet()) {
+            checkLocked(key);
+        }
+
+        Root<V> current = root.get();
+        Map<Integer, Map<String, V>> bySegment = new HashMap<>();
+        for (Map.Entry<String, V> entry : entries.entrySet()) {
+            bySegment.computeIfAbsent(current.segmentOf(entry.getKey()), k -> new LinkedHashMap<>())
+                    .put(entry.getKey(), entry.getValue());
+        }
+
+        // Only this thread can change these segments while it holds their
+        // stripes, so other writers can only swap in unrelated segments
+        while (true) {
+            Root<V> base = root.get();
+            Segment<V>[] segments = base.segments.clone();
+            int size = base.size;
+            for (Map.Entry<Integer, Map<String, V>> group : bySegment.entrySet()) {
+                Segment<V> segment = segments[group.getKey()];
+                Segment<V> updated = segment.withAll(group.getValue());
+                size += updated.size() - segment.size();
+                segments[group.getKey()] = updated;
+            }
+            if (root.compareAndSet(base, new Root<>(segments, size))) {
+                break;
+            }
+        }
+        maybeSplit();
+    }
+
+    /**
+     * Remove everything (caller holds every stripe lock)
+     */
+    void clear() {
+        checkAllLocked();
+        root.set(Root.empty(STRIPES));
+    }
+
+    private void publish(int index, Segment<V> expected, Segment<V> updated) {
+        while (true) {
+            Root<V> base = root.get();
+            Segment<V>[] segments = base.segments.clone();
+            segments[index] = updated;
+            int size = base.size - expected.size() + updated.size();
+            if (root.compareAndSet(base, new Root<>(segments, size))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Add segments once they grow past the target size
+     */
+    private void maybeSplit() {
+        if (!oversized(root.get())) {
+            return;
+        }
+
+        // Splitting rewrites every segment, so it needs every stripe; a
+        // writer holding only some stripes leaves it to the next batch
+        for (ReentrantLock stripe : stripes) {
+            if (!stripe.isHeldByCurrentThread()) {
+                if (!tryLockAll()) {
+                    return;
+                }
+                try {
+                    split();
+                } finally {
+                    unlockAll();
+                }
+                return;
+            }
+        }
+        split();
+    }
+
+    private boolean tryLockAll() {
+        // Re-entrant: stripes this thread already holds are taken again
+        for (int i = 0; i < STRIPES; i++) {
+            if (!stripes[i].tryLock()) {
+                for (int j = i - 1; j >= 0; j--) {
+                    stripes[j].unlock();
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    private static boolean oversized(Root<?> current) {
+        return current.size > (long) current.segments.length * MAX_SEGMENT_SIZE;
+    }
+
+    private void split() {
+        Root<V> current = root.get();
+        if (!oversized(current)) {
+            return;
+        }
+
+        int count = current.segments.length * 2;
+        while ((long) count * MAX_SEGMENT_SIZE < current.size) {
+            count *= 2;
+        }
+        // Each new segment takes its entries from exactly one old segment
+        int oldCount = current.segments.length;
+        Segment<V>[] segments = Segment.array(count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = current.segments[i & (oldCount - 1)].select(count - 1, i);
+        }
+        root.set(new Root<>(segments, current.size));
+    }
+
+    private void checkLocked(String key) {
+        if (!stripes[stripeOf(key)].isHeldByCurrentThread()) {
+            throw new IllegalStateException("Stripe lock not held for " + key);
+        }
+    }
+
+    private void checkAllLocked() {
+        for (ReentrantLock stripe : stripes) {
+            if (!stripe.isHeldByCurrentThread()) {
+                throw new IllegalStateException("Store is not fully locked");
+            }
+        }
+    }
+
+    // ==================== VERSIONS ====================
+
+    /**
+     * One immutable version of the store
+     */
+    private static final class Root<V> {
+        final Segment<V>[] segments;
+        final int size;
+        private volatile List<V> view;
+
+        Root(Segment<V>[] segments, int size) {
+            this.segments = segments;
+            this.size = size;
+        }
+
+        static <V> Root<V> empty(int count) {
+            Segment<V>[] segments = Segment.array(count);
+            Arrays.fill(segments, Segment.empty());
+            return new Root<>(segments, 0);
+        }
+
+        int segmentOf(String key) {
+            return hash(key) & (segments.length - 1);
+        }
+
+        List<V> view(VersionedStore<V> store) {
+            List<V> result = view;
+            if (result == null) {
+                result = new SnapshotList<>(store, segments, size);
+                view = result;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Immutable segment: hashes, keys and values in parallel arrays sorted
+     * by hash, so lookups are a binary search and a write copies three
+     * small arrays. Writes return a modified copy.
+     */
+    private static final class Segment<V> {
+        private static final Segment<?> EMPTY = new Segment<>(new int[0], new String[0], new Object[0]);
+
+        final int[] hashes;
+        final String[] keys;
+        final Object[] values;
+
+        private Segment(int[] hashes, String[] keys, Object[] values) {
+            this.hashes = hashes;
+            this.keys = keys;
+            this.values = values;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <V> Segment<V> empty() {
+            return (Segment<V>) EMPTY;
+        }
+
+        /**
+         * New array of segments (generic arrays can only be made by a cast)
+         */
+        @SuppressWarnings("unchecked")
+        static <V> Segment<V>[] array(int count) {
+            return (Segment<V>[]) new Segment<?>[count];
+        }
+
+        int size() {
+            return keys.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        V value(int position) {
+            return (V) values[position];
+        }
+
+        V get(String key) {
+            int position = find(hash(key), key);
+            return position >= 0 ? value(position) : null;
+        }
+
+        /**
+         * Position of a key, or (-insertion point - 1) if absent
+         */
+        private int find(int hash, String key) {
+            int low = 0;
+            int high = hashes.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (hashes[mid] < hash) {
+                    low = mid + 1;
+                } else if (hashes[mid] > hash) {
+                    high = mid - 1;
+                } else {
+                    // Check every key sharing this hash
+                    int i = mid;
+                    while (i > 0 && hashes[i - 1] == hash) {
+                        i--;
+                    }
+                    for (; i < hashes.length && hashes[i] == hash; i++) {
+                        if (keys[i].equals(key)) {
+                            return i;
+                        }
+                    }
+                    return -i - 1;
+                }
+            }
+            return -low - 1;
+        }
+
+        Segment<V> with(String key, V value) {
+            int hash = hash(key);
+            int position = find(hash, key);
+            if (position >= 0) {
+                // Replacing keeps the key layout, so those arrays are shared
+                Object[] updated = values.clone();
+                updated[position] = value;
+                return new Segment<>(hashes, keys, updated);
+            }
+
+            int at = -position - 1;
+            int n = keys.length;
+            int[] updatedHashes = new int[n + 1];
+            String[] updatedKeys = new String[n + 1];
+            Object[] updatedValues = new Object[n + 1];
+            System.arraycopy(hashes, 0, updatedHashes, 0, at);
+            System.arraycopy(keys, 0, updatedKeys, 0, at);
+            System.arraycopy(values, 0, updatedValues, 0, at);
+            updatedHashes[at] = hash;
+            updatedKeys[at] = key;
+            updatedValues[at] = value;
+            System.arraycopy(hashes, at, updatedHashes, at + 1, n - at);
+            System.arraycopy(keys, at, updatedKeys, at + 1, n - at);
+            System.arraycopy(values, at, updatedValues, at + 1, n - at);
+            return new Segment<>(updatedHashes, updatedKeys, updatedValues);
+        }
+
+        Segment<V> withAll(Map<String, V> entries) {
+            Object[] replaced = values;
+            List<String> addedKeys = new ArrayList<>();
+            List<V> addedValues = new ArrayList<>();
+            for (Map.Entry<String, V> entry : entries.entrySet()) {
+                int position = find(hash(entry.getKey()), entry.getKey());
+                if (position >= 0) {
+                    if (replaced == values) {
+                        replaced = values.clone();
+                    }
+                    replaced[position] = entry.getValue();
+                } else {
+                    addedKeys.add(entry.getKey());
+                    addedValues.add(entry.getValue());
+                }
+            }
+            if (addedKeys.isEmpty()) {
+                return new Segment<>(hashes, keys, replaced);
+            }
+
+            // Sort the new entries by hash (hash in the high half, entry
+            // number in the low half), then merge them with the old ones
+            long[] order = new long[addedKeys.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = ((long) hash(addedKeys.get(i)) << 32) | i;
+            }
+            Arrays.sort(order);
+
+            int n = keys.length + order.length;
+            int[] updatedHashes = new int[n];
+            String[] updatedKeys = new String[n];
+            Object[] updatedValues = new Object[n];
+            int old = 0;
+            int added = 0;
+            for (int out = 0; out < n; out++) {
+                if (added == order.length
+                        || (old < keys.length && hashes[old] <= (int) (order[added] >> 32))) {
+                    updatedHashes[out] = hashes[old];
+                    updatedKeys[out] = keys[old];
+                    updatedValues[out] = replaced[old];
+                    old++;
+                } else {
+                    int entry = (int) order[added];
+                    updatedHashes[out] = (int) (order[added] >> 32);
+                    updatedKeys[out] = addedKeys.get(entry);
+                    updatedValues[out] = addedValues.get(entry);
+                    added++;
+                }
+            }
+            return new Segment<>(updatedHashes, updatedKeys, updatedValues);
+        }
+
+        Segment<V> without(String key) {
+            int position = find(hash(key), key);
+            if (position < 0) {
+                return this;
+            }
+
+            int n = keys.length - 1;
+            int[] updatedHashes = new int[n];
+            String[] updatedKeys = new String[n];
+            Object[] updatedValues = new Object[n];
+            System.arraycopy(hashes, 0, updatedHashes, 0, position);
+            System.arraycopy(keys, 0, updatedKeys, 0, position);
+            System.arraycopy(values, 0, updatedValues, 0, position);
+            System.arraycopy(hashes, position + 1, updatedHashes, position, n - position);
+            System.arraycopy(keys, position + 1, updatedKeys, position, n - position);
+            System.arraycopy(values, position + 1, updatedValues, position, n - position);
+            return new Segment<>(updatedHashes, updatedKeys, updatedValues);
+        }
+
+        /**
+         * Entries whose hash has the given low bits, still in hash order
+         */
+        Segment<V> select(int mask, int bits) {
+            int count = 0;
+            for (int hash : hashes) {
+                if ((hash & mask) == bits) {
+                    count++;
+                }
+            }
+
+            int[] selectedHashes = new int[count];
+            String[] selectedKeys = new String[count];
+            Object[] selectedValues = new Object[count];
+            int out = 0;
+            for (int i = 0; i < hashes.length; i++) {
+                if ((hashes[i] & mask) == bits) {
+                    selectedHashes[out] = hashes[i];
+                    selectedKeys[out] = keys[i];
+                    selectedValues[out] = values[i];
+                    out++;
+                }
+            }
+            return new Segment<>(selectedHashes, selectedKeys, selectedValues);
+        }
+    }
+
+    /**
+     * Read-only random-access list over one version's segments
+     */
+    private static final class SnapshotList<V> extends AbstractList<V> implements RandomAccess {
+        private final VersionedStore<V> store;
+        private final Segment<V>[] segments;
+        private final int[] ends;
+        private final int size;
+
+        SnapshotList(VersionedStore<V> store, Segment<V>[] segments, int size) {
+            this.store = store;
+            this.segments = segments;
+            this.size = size;
+            this.ends = new int[segments.length];
+            int end = 0;
+            for (int i = 0; i < segments.length; i++) {
+                end += segments[i].size();
+                ends[i] = end;
+            }
+        }
+
+        @Override
+        public V get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            int low = 0;
+            int high = ends.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ends[mid] <= index) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int start = low == 0 ? 0 : ends[low - 1];
+            return segments[low].value(index - start);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Position found from the value's key: keys are unique and equal
+         * values share a key, so no other position can match
+         */
+        @Override
+        public int indexOf(Object o) {
+            if (!store.type.isInstance(o)) {
+                return -1;
+            }
+            String key = store.keyOf.apply(store.type.cast(o));
+            if (key == null) {
+                return -1;
+            }
+
+            int hash = hash(key);
+            int segment = hash & (segments.length - 1);
+            int position = segments[segment].find(hash, key);
+            if (position < 0 || !o.equals(segments[segment].value(position))) {
+                return -1;
+            }
+            return (segment == 0 ? 0 : ends[segment - 1]) + position;
+        }
+
+        @Override
+        public int lastIndexOf(Object o) {
+            return indexOf(o);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return indexOf(o) >= 0;
+        }
+
+        @Override
+        public void forEach(Consumer<? super V> action) {
+            for (Segment<V> segment : segments) {
+                for (int i = 0; i < segment.size(); i++) {
+                    action.accept(segment.value(i));
+                }
+            }
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<V>() {
+                private int segment;
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    while (segment < segments.length && position >= segments[segment].size()) {
+                        segment++;
+                        position = 0;
+                    }
+                    return segment < segments.length;
+                }
+
+                @Override
+                public V next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return segments[segment].value(position++);
+                }
+            };
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package models.criminals;
 
+import models.BinaryReader;
+import models.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Violent Offender Criminal Type
  */
 public class ViolentOffender extends Criminal {
 
+    private static final long serialVersionUID = 1611431415211713770L;
+
     private String weaponPreference;
     private boolean impulseControl;
     private boolean substanceAbuse;
@@ -61,5 +68,24 @@ public class ViolentOffender extends Criminal {
     public void incrementAssaultCount() {
         this.assaultCount++;
     }
+
+    // Binary format
+    @Override
+    protected void writeDetails(BinaryWriter out) throws IOException {
+        out.writeString(weaponPreference);
+        out.writeBoolean(impulseControl);
+        out.writeBoolean(substanceAbuse);
+        out.writeString(triggerType);
+        out.writeVarInt(assaultCount);
+    }
+
+    @Override
+    protected void readDetails(BinaryReader in) throws IOException {
+        weaponPreference = in.readString();
+        impulseControl = in.readBoolean();
+        substanceAbuse = in.readBoolean();
+        triggerType = in.readString();
+        assaultCount = in.readVarInt();
+    }
 }
 
@@ -0,0 +1,13 @@
+package engine;
+
+/**
+ * Weight Change Listener
+ * Notified after a learning model weight is set or the model is reset.
+ */
+public interface WeightChangeListener {
+
+    /**
+     * One or more weights in the model changed
+     */
+    void weightsChanged(SimpleLearningModel model);
+}